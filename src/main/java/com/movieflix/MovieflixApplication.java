@@ -1,10 +1,7 @@
 package com.movieflix;
 
-import org.modelmapper.ModelMapper;
-import org.modelmapper.convention.MatchingStrategies;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
-import org.springframework.context.annotation.Bean;
 
 @SpringBootApplication
 public class MovieflixApplication {
@@ -12,14 +9,4 @@ public class MovieflixApplication {
 	public static void main(String[] args) {
 		SpringApplication.run(MovieflixApplication.class, args);
 	}
-
-	@Bean
-	public ModelMapper modelMapper() {
-
-		ModelMapper modelMapper = new ModelMapper();
-
-		modelMapper.getConfiguration().setMatchingStrategy(MatchingStrategies.STRICT);
-
-		return modelMapper;
-	}
 }
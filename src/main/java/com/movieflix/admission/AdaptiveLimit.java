@@ -0,0 +1,111 @@
+package com.movieflix.admission;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A concurrency limit adapted to latency by additive increase and multiplicative decrease. The
+ * latency of the last few requests is compared with a baseline averaged over about the last
+ * {@value #BASELINE_SAMPLES} requests, so it follows lasting changes such as a growing collection,
+ * and an endpoint mixing fast and slow requests is only congested when its average slows down, not
+ * because its fastest requests are faster than the others. While the recent latency stays within
+ * {@code tolerance} times the baseline, each request that found at least half the limit in use
+ * raises it by {@code 1 / limit}, about one per round of {@code limit} requests. Once it exceeds
+ * that, or a request fails, the limit is multiplied by {@code backoff}, at most once per round so
+ * that the requests already queued behind the congestion do not collapse it.
+ */
+public class AdaptiveLimit {
+
+    static final int BASELINE_SAMPLES = 1000;
+
+    private static final double SMOOTHING = 0.1;
+
+    private final int minLimit;
+
+    private final int maxLimit;
+
+    private final double tolerance;
+
+    private final double backoff;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private volatile int limit;
+
+    private double estimate;
+
+    private double smoothedNanos;
+
+    private double baselineNanos;
+
+    private long samples;
+
+    private double samplesSinceDecrease;
+
+    public AdaptiveLimit(int initialLimit, int minLimit, int maxLimit, double tolerance, double backoff) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.backoff = backoff;
+        this.estimate = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        this.limit = (int) estimate;
+    }
+
+    /**
+     * @return whether the request is admitted, in which case it must be released
+     */
+    public boolean tryAcquire() {
+        int current;
+        do {
+            current = inFlight.get();
+            if (current >= limit) {
+                return false;
+            }
+        } while (!inFlight.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    /**
+     * Releases an admitted request without learning from it, for requests whose latency says
+     * nothing about the endpoint.
+     */
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+
+    /**
+     * Releases an admitted request and adapts the limit to it.
+     *
+     * @param inFlightAtStart the requests in flight, this one included, when it was admitted
+     * @return whether the limit was decreased
+     */
+    public boolean release(long latencyNanos, int inFlightAtStart, boolean failed) {
+        inFlight.decrementAndGet();
+        synchronized (this) {
+            samples++;
+            // the plain mean until there are enough samples, so the first requests do not skew it
+            baselineNanos += (latencyNanos - baselineNanos) / Math.min(samples, BASELINE_SAMPLES);
+            smoothedNanos = samples == 1 ? latencyNanos : smoothedNanos + SMOOTHING * (latencyNanos - smoothedNanos);
+            samplesSinceDecrease++;
+            boolean congested = failed || smoothedNanos > tolerance * baselineNanos;
+            if (congested && samplesSinceDecrease >= estimate) {
+                estimate = Math.max(minLimit, estimate * backoff);
+                samplesSinceDecrease = 0;
+                limit = (int) estimate;
+                return true;
+            }
+            if (!congested && 2 * inFlightAtStart >= estimate) {
+                estimate = Math.min(maxLimit, estimate + 1 / estimate);
+                limit = (int) estimate;
+            }
+            return false;
+        }
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
@@ -0,0 +1,166 @@
+package com.movieflix.admission;
+
+import com.movieflix.exception.ConcurrencyLimitException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sheds requests to {@link AdmissionControlled} handlers beyond the {@link AdaptiveLimit} of their
+ * endpoint, the method and URI pattern, with a 503 and a {@code Retry-After}, instead of letting them
+ * queue for Mongo connections until they all time out. A {@code HIGH} request that is shed, or that
+ * makes its endpoint back off, marks the high priority endpoints congested for
+ * {@code admission.retry-after-seconds}, during which {@code LOW} requests are shed outright.
+ * Requests answered with a 5xx count as failed. Only those and the 2xx adapt the limit: a 304 or
+ * a 404 skips the work of a 200, so its latency says nothing about the load of the endpoint.
+ * <p>
+ * The limit, the requests in flight and the shed requests of each endpoint are published as
+ * {@value #METRIC}.limit, .concurrency and .rejected.
+ */
+@Component
+@Profile("!reactive")
+@ConditionalOnProperty(value = "admission.enabled", havingValue = "true", matchIfMissing = true)
+public class AdmissionControlInterceptor implements AsyncHandlerInterceptor {
+
+    public static final String METRIC = "movieflix.admission";
+
+    private static final String PERMIT = AdmissionControlInterceptor.class.getName() + ".permit";
+
+    private final MeterRegistry meterRegistry;
+
+    private final int initialLimit;
+
+    private final int minLimit;
+
+    private final int maxLimit;
+
+    private final double tolerance;
+
+    private final double backoff;
+
+    private final long retryAfterSeconds;
+
+    private final ConcurrentMap<String, AdaptiveLimit> limits = new ConcurrentHashMap<>();
+
+    private volatile long congestedUntil = System.nanoTime();
+
+    public AdmissionControlInterceptor(MeterRegistry meterRegistry,
+                                       @Value("${admission.initial-limit}") int initialLimit,
+                                       @Value("${admission.min-limit}") int minLimit,
+                                       @Value("${admission.max-limit}") int maxLimit,
+                                       @Value("${admission.latency-tolerance}") double tolerance,
+                                       @Value("${admission.backoff}") double backoff,
+                                       @Value("${admission.retry-after-seconds}") long retryAfterSeconds) {
+        this.meterRegistry = meterRegistry;
+        this.initialLimit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.backoff = backoff;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // the dispatch that completes a streamed response was admitted with the request
+        if (!(handler instanceof HandlerMethod) || request.getDispatcherType() != DispatcherType.REQUEST) {
+            return true;
+        }
+        AdmissionControlled admission = ((HandlerMethod) handler).getMethodAnnotation(AdmissionControlled.class);
+        if (admission == null) {
+            return true;
+        }
+        String uri = String.valueOf(request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE));
+        AdaptiveLimit limit = limits.computeIfAbsent(request.getMethod() + " " + uri, endpoint -> newLimit(request.getMethod(), uri));
+        long now = System.nanoTime();
+        boolean congested = now - congestedUntil < 0;
+        if (admission.value() == Priority.LOW && congested || !limit.tryAcquire()) {
+            if (admission.value() == Priority.HIGH) {
+                congest(now);
+            }
+            rejected(request.getMethod(), uri, admission.value()).increment();
+            throw new ConcurrencyLimitException(retryAfterSeconds);
+        }
+        request.setAttribute(PERMIT, new Permit(limit, admission.value(), now, limit.getInFlight()));
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        Permit permit = (Permit) request.getAttribute(PERMIT);
+        if (permit != null) {
+            request.removeAttribute(PERMIT);
+            permit.limit.release();
+        }
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        Permit permit = (Permit) request.getAttribute(PERMIT);
+        if (permit == null) {
+            return;
+        }
+        request.removeAttribute(PERMIT);
+        long now = System.nanoTime();
+        boolean failed = ex != null || response.getStatus() >= 500;
+        if (!failed && response.getStatus() / 100 != 2) {
+            permit.limit.release();
+            return;
+        }
+        if (permit.limit.release(now - permit.start, permit.inFlight, failed) && permit.priority == Priority.HIGH) {
+            congest(now);
+        }
+    }
+
+    private void congest(long now) {
+        congestedUntil = now + TimeUnit.SECONDS.toNanos(retryAfterSeconds);
+    }
+
+    private AdaptiveLimit newLimit(String method, String uri) {
+        AdaptiveLimit limit = new AdaptiveLimit(initialLimit, minLimit, maxLimit, tolerance, backoff);
+        Gauge.builder(METRIC + ".limit", limit, AdaptiveLimit::getLimit)
+                .tag("method", method)
+                .tag("uri", uri)
+                .register(meterRegistry);
+        Gauge.builder(METRIC + ".concurrency", limit, AdaptiveLimit::getInFlight)
+                .tag("method", method)
+                .tag("uri", uri)
+                .register(meterRegistry);
+        return limit;
+    }
+
+    private Counter rejected(String method, String uri, Priority priority) {
+        return Counter.builder(METRIC + ".rejected")
+                .tag("method", method)
+                .tag("uri", uri)
+                .tag("priority", priority.name().toLowerCase())
+                .register(meterRegistry);
+    }
+
+    @RequiredArgsConstructor
+    private static class Permit {
+
+        private final AdaptiveLimit limit;
+
+        private final Priority priority;
+
+        private final long start;
+
+        private final int inFlight;
+    }
+}
@@ -0,0 +1,20 @@
+package com.movieflix.admission;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Puts a handler method under the adaptive concurrency limit of its endpoint, see
+ * {@link AdmissionControlInterceptor}. Meant for handlers that wait on Mongo; streamed responses
+ * are admitted but not limited while they stream.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface AdmissionControlled {
+
+    Priority value() default Priority.HIGH;
+}
@@ -0,0 +1,12 @@
+package com.movieflix.admission;
+
+/**
+ * Which requests are shed first: {@code LOW} ones stop being admitted as soon as a {@code HIGH}
+ * endpoint is congested, before cheap lookups have to be shed.
+ */
+public enum Priority {
+
+    HIGH,
+
+    LOW
+}
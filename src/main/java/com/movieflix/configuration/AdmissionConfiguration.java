@@ -0,0 +1,22 @@
+package com.movieflix.configuration;
+
+import com.movieflix.admission.AdmissionControlInterceptor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@Profile("!reactive")
+@RequiredArgsConstructor
+public class AdmissionConfiguration implements WebMvcConfigurer {
+
+    private final ObjectProvider<AdmissionControlInterceptor> admissionControlInterceptor;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        admissionControlInterceptor.ifAvailable(registry::addInterceptor);
+    }
+}
@@ -0,0 +1,13 @@
+package com.movieflix.configuration;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableCaching
+public class CacheConfiguration {
+
+    public static final String CATEGORIES = "categories";
+
+    public static final String CATEGORY_LIST = "categoryList";
+}
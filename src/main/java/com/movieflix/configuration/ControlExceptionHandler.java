@@ -1,7 +1,15 @@
 package com.movieflix.configuration;
 
 import com.movieflix.exception.CategoryNotFoundException;
+import com.movieflix.exception.ConcurrencyLimitException;
 import com.movieflix.exception.DataNotFoundException;
+import com.movieflix.exception.InvalidCursorException;
+import com.movieflix.exception.InvalidFieldsException;
+import com.movieflix.exception.InvalidResumeTokenException;
+import com.movieflix.exception.ResumeTokenExpiredException;
+import com.movieflix.exception.SubscriberLimitException;
+import com.movieflix.exception.VersionConflictException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -9,6 +17,7 @@ import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.support.WebExchangeBindException;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -27,6 +36,13 @@ public class ControlExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errors);
     }
 
+    @ExceptionHandler(WebExchangeBindException.class)
+    protected ResponseEntity<Object> handleException(WebExchangeBindException ex) {
+        Map<String, String> errors = new HashMap<>();
+        ex.getFieldErrors().forEach(error -> errors.put(error.getField(), error.getDefaultMessage()));
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errors);
+    }
+
     @ExceptionHandler(DataNotFoundException.class)
     protected ResponseEntity<Object> handleException(DataNotFoundException ex) {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ex.getMessage());
@@ -36,4 +52,41 @@ public class ControlExceptionHandler {
     protected ResponseEntity<Object> handleException(CategoryNotFoundException ex) {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ex.getMessage());
     }
+
+    @ExceptionHandler(InvalidCursorException.class)
+    protected ResponseEntity<Object> handleException(InvalidCursorException ex) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ex.getMessage());
+    }
+
+    @ExceptionHandler(InvalidFieldsException.class)
+    protected ResponseEntity<Object> handleException(InvalidFieldsException ex) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ex.getMessage());
+    }
+
+    @ExceptionHandler(VersionConflictException.class)
+    protected ResponseEntity<Object> handleException(VersionConflictException ex) {
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(ex.getMessage());
+    }
+
+    @ExceptionHandler(InvalidResumeTokenException.class)
+    protected ResponseEntity<Object> handleException(InvalidResumeTokenException ex) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ex.getMessage());
+    }
+
+    @ExceptionHandler(ResumeTokenExpiredException.class)
+    protected ResponseEntity<Object> handleException(ResumeTokenExpiredException ex) {
+        return ResponseEntity.status(HttpStatus.GONE).body(ex.getMessage());
+    }
+
+    @ExceptionHandler(SubscriberLimitException.class)
+    protected ResponseEntity<Object> handleException(SubscriberLimitException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(ex.getMessage());
+    }
+
+    @ExceptionHandler(ConcurrencyLimitException.class)
+    protected ResponseEntity<Object> handleException(ConcurrencyLimitException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(ex.getMessage());
+    }
 }
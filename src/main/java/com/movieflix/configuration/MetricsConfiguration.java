@@ -0,0 +1,65 @@
+package com.movieflix.configuration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandSucceededEvent;
+import com.movieflix.metrics.RequestBreakdown;
+import com.movieflix.metrics.TimedMappingJackson2CborHttpMessageConverter;
+import com.movieflix.metrics.TimedMappingJackson2HttpMessageConverter;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service timers come from {@code @Timed}, Mongo command and pool metrics from Spring Boot's
+ * auto-configuration. This adds the pieces of the per-request breakdown that need wiring.
+ */
+@Configuration
+public class MetricsConfiguration {
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+
+    @Bean
+    public MongoClientSettingsBuilderCustomizer requestBreakdownCommandListener() {
+        return settings -> settings.addCommandListener(new CommandListener() {
+            @Override
+            public void commandSucceeded(CommandSucceededEvent event) {
+                RequestBreakdown.addDb(event.getElapsedTime(TimeUnit.NANOSECONDS));
+            }
+
+            @Override
+            public void commandFailed(CommandFailedEvent event) {
+                RequestBreakdown.addDb(event.getElapsedTime(TimeUnit.NANOSECONDS));
+            }
+        });
+    }
+
+    /**
+     * Replaces the converter Spring Boot would register, so it backs off.
+     */
+    @Bean
+    public MappingJackson2HttpMessageConverter mappingJackson2HttpMessageConverter(ObjectMapper objectMapper) {
+        return new TimedMappingJackson2HttpMessageConverter(objectMapper);
+    }
+
+    /**
+     * Takes the place of Spring's default CBOR converter. Spring Boot's builder gives it the same
+     * settings as the JSON mapper.
+     */
+    @Bean
+    public MappingJackson2CborHttpMessageConverter mappingJackson2CborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new TimedMappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+}
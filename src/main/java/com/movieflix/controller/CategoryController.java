@@ -1,19 +1,32 @@
 package com.movieflix.controller;
 
+import com.movieflix.admission.AdmissionControlled;
+import com.movieflix.admission.Priority;
 import com.movieflix.domain.dto.CategoryRequestDTO;
 import com.movieflix.domain.dto.CategoryResponseDTO;
+import com.movieflix.domain.dto.CategorySummaryDTO;
+import com.movieflix.domain.dto.CursorPageDTO;
 import com.movieflix.domain.dto.VideoResponseDTO;
 import com.movieflix.service.CategoryService;
+import com.movieflix.service.VideoFields;
 import com.movieflix.service.VideoService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import javax.validation.Valid;
 import java.util.List;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/categories")
+@Profile("!reactive")
 @RequiredArgsConstructor
 public class CategoryController {
 
@@ -21,34 +34,89 @@ public class CategoryController {
 
     private final VideoService videoService;
 
+    @Value("${http-cache.categories}")
+    private String categoriesCacheControl;
+
+    @Value("${http-cache.category}")
+    private String categoryCacheControl;
+
+    @Value("${http-cache.category-videos}")
+    private String categoryVideosCacheControl;
+
+    @Value("${http-cache.category-summary}")
+    private String categorySummaryCacheControl;
+
     @GetMapping
-    public List<CategoryResponseDTO> findAll() {
-        return categoryService.findAll();
+    @AdmissionControlled
+    public ResponseEntity<List<CategoryResponseDTO>> findAll(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        long version = categoryService.getCollectionVersion();
+        return ConditionalResponses.getListing(ifNoneMatch, version, categoriesCacheControl, () -> categoryService.findAll(version));
+    }
+
+    @GetMapping("/summary")
+    @AdmissionControlled
+    public ResponseEntity<List<CategorySummaryDTO>> findSummary(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return ConditionalResponses.getListing(ifNoneMatch, categoryService.getSummaryVersion(), categorySummaryCacheControl, categoryService::findSummary);
     }
 
     @PostMapping
+    @AdmissionControlled
     public CategoryResponseDTO create(@RequestBody @Valid CategoryRequestDTO categoryRequest) {
         return categoryService.create(categoryRequest);
     }
 
     @GetMapping("/{id}")
-    public CategoryResponseDTO findById(@PathVariable String id) {
-        return categoryService.findById(id);
+    @AdmissionControlled
+    public ResponseEntity<CategoryResponseDTO> findById(
+            @PathVariable String id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        long version = categoryService.getVersion(id);
+        return ConditionalResponses.get(ifNoneMatch, version, categoryCacheControl, () -> categoryService.findById(id, version));
     }
 
     @PutMapping("/{id}")
-    public CategoryResponseDTO update(@PathVariable String id, @RequestBody @Valid  CategoryRequestDTO categoryRequest) {
-        return categoryService.update(id, categoryRequest);
+    @AdmissionControlled
+    public CategoryResponseDTO update(
+            @PathVariable String id,
+            @RequestBody @Valid  CategoryRequestDTO categoryRequest,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return categoryService.update(id, categoryRequest, ConditionalResponses.expectedVersion(ifMatch));
     }
 
     @DeleteMapping("/{id}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
-    public void delete(@PathVariable String id) {
-        categoryService.delete(id);
+    @AdmissionControlled
+    public void delete(
+            @PathVariable String id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        categoryService.delete(id, ConditionalResponses.expectedVersion(ifMatch));
     }
 
     @GetMapping("/{id}/videos")
-    public List<VideoResponseDTO> findVideosByCategoryId(@PathVariable String id) {
-        return videoService.findAllByCategory(id);
+    @AdmissionControlled(Priority.LOW)
+    public ResponseEntity<Page<VideoResponseDTO>> findVideosByCategoryId(
+            @PathVariable String id,
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false, defaultValue = "0") Integer page,
+            @RequestParam(required = false, defaultValue = "10") Integer size,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        Set<String> projection = VideoFields.parse(fields);
+        return ConditionalResponses.getListing(ifNoneMatch, videoService.getCollectionVersion(), categoryVideosCacheControl,
+                () -> videoService.findAllByCategory(id, projection, PageRequest.of(page, size)));
+    }
+
+    @GetMapping(value = "/{id}/videos", params = "cursor")
+    @AdmissionControlled(Priority.LOW)
+    public ResponseEntity<CursorPageDTO<VideoResponseDTO>> findVideosByCategoryIdByCursor(
+            @PathVariable String id,
+            @RequestParam(required = false) String fields,
+            @RequestParam String cursor,
+            @RequestParam(required = false, defaultValue = "10") Integer size,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        Set<String> projection = VideoFields.parse(fields);
+        return ConditionalResponses.getListing(ifNoneMatch, videoService.getCollectionVersion(), categoryVideosCacheControl,
+                () -> videoService.findAllByCategory(id, projection, cursor, size));
     }
 }
@@ -0,0 +1,33 @@
+package com.movieflix.controller;
+
+import com.movieflix.service.CatalogChangeFeed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.util.StringUtils;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/changes")
+@Profile("!reactive")
+@RequiredArgsConstructor
+public class ChangeFeedController {
+
+    private final CatalogChangeFeed catalogChangeFeed;
+
+    /**
+     * EventSource clients resume through Last-Event-ID on their own, other clients pass the id of
+     * the last event they processed as {@code resumeAfter}.
+     */
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribe(
+            @RequestParam(required = false) String resumeAfter,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return catalogChangeFeed.subscribe(StringUtils.hasText(lastEventId) ? lastEventId : resumeAfter);
+    }
+}
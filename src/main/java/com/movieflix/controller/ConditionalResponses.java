@@ -0,0 +1,191 @@
+package com.movieflix.controller;
+
+import com.movieflix.domain.dto.Versioned;
+import com.movieflix.exception.VersionConflictException;
+import com.movieflix.service.VideoBodyCache;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Conditional request support for the controllers. On GET If-None-Match is compared with a version
+ * that is cheap to read, and the body is only built when the client's copy is stale, so a 304 costs
+ * no more than reading the version. The ETag of a 200 is the version of the document the body was
+ * built from, which can be newer than the one compared, never the other way round. Hot documents,
+ * whose reads are coalesced or cached, are instead read with their version in one lookup and
+ * compared afterwards: a 304 then saves the transfer, not the read. On writes If-Match carries the
+ * version the client expects.
+ * <p>
+ * Bodies are negotiated by Accept, as JSON or CBOR, so every GET varies by it. Each representation
+ * of a version gets its own tag, {@code "3"} for JSON, {@code "3-cbor"} or {@code "3-gz"} for the
+ * others, as a strong tag must not be shared by different bytes. Tags are compared on the version
+ * alone: the representation suffix is added by {@link RepresentationETagAdvice} once the body is
+ * negotiated, and by {@link #getEncoded} when it picks the gzipped copy.
+ */
+final class ConditionalResponses {
+
+    /**
+     * An Accept-Encoding entry allowing gzip: {@code gzip} or {@code *}, with no weight or a
+     * non-zero one.
+     */
+    private static final Pattern ACCEPTS_GZIP = Pattern.compile("(?i)(gzip|\\*)\\s*(;\\s*q=(1(\\.0*)?|0?\\.\\d*[1-9]\\d*))?");
+
+    /**
+     * An entity tag, weak or strong, of a version and maybe a representation suffix.
+     */
+    private static final Pattern VERSION_TAG = Pattern.compile("(W/)?\"(\\d+)(-[a-z]+)?\"");
+
+    static final String CBOR = "cbor";
+
+    static final String GZIP = "gz";
+
+    private ConditionalResponses() {
+    }
+
+    static <T> ResponseEntity<T> get(String ifNoneMatch, long version, String cacheControl, Supplier<Versioned<T>> body) {
+        if (matchingTag(ifNoneMatch, version) != null) {
+            return notModified("\"" + version + "\"", cacheControl);
+        }
+        return ok(body.get(), cacheControl);
+    }
+
+    /**
+     * As {@link #get(String, long, String, Supplier)}, for a body already read with its version.
+     */
+    static <T> ResponseEntity<T> get(String ifNoneMatch, String cacheControl, Versioned<T> versioned) {
+        if (matchingTag(ifNoneMatch, versioned.getVersion()) != null) {
+            return notModified("\"" + versioned.getVersion() + "\"", cacheControl);
+        }
+        return ok(versioned, cacheControl);
+    }
+
+    private static <T> ResponseEntity<T> ok(Versioned<T> versioned, String cacheControl) {
+        return ResponseEntity.ok()
+                .eTag("\"" + versioned.getVersion() + "\"")
+                .header(HttpHeaders.CACHE_CONTROL, cacheControl)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT)
+                .body(versioned.getBody());
+    }
+
+    /**
+     * As {@link #get(String, long, String, Supplier)}, with a weak ETag of the collection version the body must be read at. Listings
+     * are never written with If-Match, and Tomcat only compresses responses whose ETag is weak.
+     */
+    static <T> ResponseEntity<T> getListing(String ifNoneMatch, long version, String cacheControl, Supplier<T> body) {
+        String etag = "W/\"" + version + "\"";
+        if (matchingTag(ifNoneMatch, version) != null) {
+            return notModified(etag, cacheControl);
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .header(HttpHeaders.CACHE_CONTROL, cacheControl)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT)
+                .body(body.get());
+    }
+
+    private static <T> ResponseEntity<T> notModified(String etag, String cacheControl) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(etag)
+                .header(HttpHeaders.CACHE_CONTROL, cacheControl)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT)
+                .build();
+    }
+
+    /**
+     * As {@link #get(String, String, Versioned)}, for a body encoded ahead of time, which is written
+     * to the response as is. Clients accepting gzip get the gzipped copy when there is one, so the
+     * response also varies by Accept-Encoding. A 304 carries the tag the client matched, which names
+     * the encoding it holds.
+     */
+    static ResponseEntity<byte[]> getEncoded(String ifNoneMatch, String acceptEncoding, String cacheControl,
+                                             VideoBodyCache.Body encoded) {
+        String matched = matchingTag(ifNoneMatch, encoded.getVersion());
+        if (matched != null) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(matched.equals("*") ? "\"" + encoded.getVersion() + "\"" : matched)
+                    .header(HttpHeaders.CACHE_CONTROL, cacheControl)
+                    .header(HttpHeaders.VARY, HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING)
+                    .build();
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .header(HttpHeaders.CACHE_CONTROL, cacheControl)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING)
+                .contentType(MediaType.APPLICATION_JSON);
+        String etag = "\"" + encoded.getVersion() + "\"";
+        if (encoded.getGzip() != null && acceptsGzip(acceptEncoding)) {
+            return response.eTag(withRepresentation(etag, GZIP))
+                    .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                    .body(encoded.getGzip());
+        }
+        return response.eTag(etag).body(encoded.getJson());
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            if (ACCEPTS_GZIP.matcher(coding.trim()).matches()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Version required by an If-Match header, or {@code null} when the header is absent or
+     * {@code *}. The tag of any representation of a version expects that version. If-Match uses
+     * strong comparison, so a weak or malformed tag can never match.
+     *
+     * @throws VersionConflictException if the tag can never match
+     */
+    static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        Matcher tag = VERSION_TAG.matcher(ifMatch.trim());
+        if (!tag.matches() || tag.group(1) != null) {
+            throw new VersionConflictException();
+        }
+        try {
+            return Long.valueOf(tag.group(2));
+        } catch (NumberFormatException e) {
+            throw new VersionConflictException();
+        }
+    }
+
+    /**
+     * The tag of {@code representation}, e.g. {@code "3-cbor"} for {@code "3"}.
+     */
+    static String withRepresentation(String etag, String representation) {
+        return etag.substring(0, etag.length() - 1) + "-" + representation + "\"";
+    }
+
+    /**
+     * Weak comparison, as RFC 7232 requires for If-None-Match, of the version alone.
+     *
+     * @return the first tag of {@code ifNoneMatch} of {@code version}, without its weakness
+     * indicator, {@code *}, or {@code null} if none matches
+     */
+    private static String matchingTag(String ifNoneMatch, long version) {
+        if (ifNoneMatch == null) {
+            return null;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            candidate = candidate.trim();
+            if (candidate.equals("*")) {
+                return candidate;
+            }
+            Matcher tag = VERSION_TAG.matcher(candidate);
+            if (tag.matches() && tag.group(2).equals(Long.toString(version))) {
+                return tag.group(1) != null ? candidate.substring(2) : candidate;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,64 @@
+package com.movieflix.controller;
+
+import com.movieflix.domain.dto.CategoryRequestDTO;
+import com.movieflix.domain.dto.CategoryResponseDTO;
+import com.movieflix.domain.dto.VideoResponseDTO;
+import com.movieflix.service.ReactiveCategoryService;
+import com.movieflix.service.VideoFields;
+import com.movieflix.service.ReactiveVideoService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import javax.validation.Valid;
+
+@RestController
+@RequestMapping("/categories")
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveCategoryController {
+
+    private final ReactiveCategoryService categoryService;
+
+    private final ReactiveVideoService videoService;
+
+    @GetMapping
+    public Flux<CategoryResponseDTO> findAll() {
+        return categoryService.findAll();
+    }
+
+    @PostMapping
+    public Mono<CategoryResponseDTO> create(@RequestBody @Valid CategoryRequestDTO categoryRequest) {
+        return categoryService.create(categoryRequest);
+    }
+
+    @GetMapping("/{id}")
+    public Mono<CategoryResponseDTO> findById(@PathVariable String id) {
+        return categoryService.findById(id);
+    }
+
+    @PutMapping("/{id}")
+    public Mono<CategoryResponseDTO> update(@PathVariable String id, @RequestBody @Valid CategoryRequestDTO categoryRequest) {
+        return categoryService.update(id, categoryRequest);
+    }
+
+    @DeleteMapping("/{id}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public Mono<Void> delete(@PathVariable String id) {
+        return categoryService.delete(id);
+    }
+
+    @GetMapping("/{id}/videos")
+    public Mono<Page<VideoResponseDTO>> findVideosByCategoryId(
+            @PathVariable String id,
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false, defaultValue = "0") Integer page,
+            @RequestParam(required = false, defaultValue = "10") Integer size) {
+        return videoService.findAllByCategory(id, VideoFields.parse(fields), PageRequest.of(page, size));
+    }
+}
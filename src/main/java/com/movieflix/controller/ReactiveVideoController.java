@@ -0,0 +1,71 @@
+package com.movieflix.controller;
+
+import com.movieflix.domain.dto.CursorPageDTO;
+import com.movieflix.domain.dto.VideoRequestDTO;
+import com.movieflix.domain.dto.VideoResponseDTO;
+import com.movieflix.service.ReactiveVideoService;
+import com.movieflix.service.VideoFields;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.util.StringUtils;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import javax.validation.Valid;
+import java.util.Set;
+
+@RestController
+@RequestMapping("/videos")
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveVideoController {
+
+    private final ReactiveVideoService videoService;
+
+    @GetMapping
+    public Mono<Page<VideoResponseDTO>> findAll(
+            @RequestParam(required = false) String title,
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false, defaultValue = "0") Integer page,
+            @RequestParam(required = false, defaultValue = "10") Integer size) {
+        Set<String> projection = VideoFields.parse(fields);
+        if (StringUtils.hasText(search)) {
+            return videoService.search(search, projection, PageRequest.of(page, size));
+        }
+        return videoService.findAll(title, projection, PageRequest.of(page, size));
+    }
+
+    @GetMapping(params = "cursor")
+    public Mono<CursorPageDTO<VideoResponseDTO>> findAllByCursor(
+            @RequestParam(required = false) String title,
+            @RequestParam(required = false) String fields,
+            @RequestParam String cursor,
+            @RequestParam(required = false, defaultValue = "10") Integer size) {
+        return videoService.findAll(title, VideoFields.parse(fields), cursor, size);
+    }
+
+    @PostMapping
+    public Mono<VideoResponseDTO> create(@RequestBody @Valid VideoRequestDTO videoRequest) {
+        return videoService.create(videoRequest);
+    }
+
+    @GetMapping("/{id}")
+    public Mono<VideoResponseDTO> findById(@PathVariable String id, @RequestParam(required = false) String fields) {
+        return videoService.findById(id, VideoFields.parse(fields));
+    }
+
+    @PutMapping("/{id}")
+    public Mono<VideoResponseDTO> update(@PathVariable String id, @RequestBody @Valid VideoRequestDTO videoRequest) {
+        return videoService.update(id, videoRequest);
+    }
+
+    @DeleteMapping("/{id}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public Mono<Void> delete(@PathVariable String id) {
+        return videoService.delete(id);
+    }
+}
@@ -0,0 +1,47 @@
+package com.movieflix.controller;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Gives CBOR bodies their own ETag, {@code "3-cbor"} rather than the {@code "3"} of the JSON one.
+ * The representation is only known once the body is negotiated, after the controller tagged it,
+ * and this runs for 304s as well, so both carry the same tag.
+ */
+@ControllerAdvice
+@Profile("!reactive")
+public class RepresentationETagAdvice implements ResponseBodyAdvice<Object> {
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        HttpHeaders headers = response.getHeaders();
+        String etag = headers.getETag();
+        if (etag == null || !MediaType.APPLICATION_CBOR.isCompatibleWith(selectedContentType)) {
+            return body;
+        }
+        String tagged = ConditionalResponses.withRepresentation(etag, ConditionalResponses.CBOR);
+        if (response instanceof ServletServerHttpResponse) {
+            // checking If-None-Match on a 200 already set the tag on the servlet response, replace it there
+            headers.remove(HttpHeaders.ETAG);
+            ((ServletServerHttpResponse) response).getServletResponse().setHeader(HttpHeaders.ETAG, tagged);
+        } else {
+            headers.setETag(tagged);
+        }
+        return body;
+    }
+}
@@ -1,50 +1,215 @@
 package com.movieflix.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.movieflix.admission.AdmissionControlled;
+import com.movieflix.admission.Priority;
+import com.movieflix.domain.dto.CursorPageDTO;
+import com.movieflix.domain.dto.TrendingVideoDTO;
+import com.movieflix.domain.dto.VideoBatchResultDTO;
 import com.movieflix.domain.dto.VideoRequestDTO;
 import com.movieflix.domain.dto.VideoResponseDTO;
+import com.movieflix.service.VideoBatchService;
+import com.movieflix.service.VideoFields;
 import com.movieflix.service.VideoService;
+import com.movieflix.service.VideoViewService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import javax.validation.Valid;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
 
 @RestController
 @RequestMapping("/videos")
+@Profile("!reactive")
 @RequiredArgsConstructor
 public class VideoController {
 
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
     private final VideoService videoService;
 
+    private final VideoBatchService videoBatchService;
+
+    private final VideoViewService videoViewService;
+
+    private final ObjectMapper objectMapper;
+
+    @Value("${http-cache.videos}")
+    private String videosCacheControl;
+
+    @Value("${http-cache.video}")
+    private String videoCacheControl;
+
     @GetMapping
-    public Page<VideoResponseDTO> findAll(
+    @AdmissionControlled(Priority.LOW)
+    public ResponseEntity<Page<VideoResponseDTO>> findAll(
             @RequestParam(required = false) String title,
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) String fields,
             @RequestParam(required = false, defaultValue = "0") Integer page,
-            @RequestParam(required = false, defaultValue = "10") Integer size) {
-        return videoService.findAll(title, PageRequest.of(page, size));
+            @RequestParam(required = false, defaultValue = "10") Integer size,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        Set<String> projection = VideoFields.parse(fields);
+        return ConditionalResponses.getListing(ifNoneMatch, videoService.getCollectionVersion(), videosCacheControl, () -> {
+            if (StringUtils.hasText(search)) {
+                return videoService.search(search, projection, PageRequest.of(page, size));
+            }
+            return videoService.findAll(title, projection, PageRequest.of(page, size));
+        });
+    }
+
+    @GetMapping(params = "cursor")
+    @AdmissionControlled(Priority.LOW)
+    public ResponseEntity<CursorPageDTO<VideoResponseDTO>> findAllByCursor(
+            @RequestParam(required = false) String title,
+            @RequestParam(required = false) String fields,
+            @RequestParam String cursor,
+            @RequestParam(required = false, defaultValue = "10") Integer size,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        Set<String> projection = VideoFields.parse(fields);
+        return ConditionalResponses.getListing(ifNoneMatch, videoService.getCollectionVersion(), videosCacheControl,
+                () -> videoService.findAll(title, projection, cursor, size));
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam(required = false) String title,
+            @RequestParam(required = false) String categoryId) {
+        return ResponseEntity.ok()
+                .contentType(NDJSON)
+                .body(out -> writeNdjson(videoService.export(title, categoryId), out));
+    }
+
+    /**
+     * Writes one video per line. The generator only writes to the response when its buffer fills up
+     * and once at the end, rather than flushing a chunk per video.
+     */
+    private void writeNdjson(Stream<VideoResponseDTO> videos, OutputStream out) throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(VideoResponseDTO.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try (videos; JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            Iterator<VideoResponseDTO> iterator = videos.iterator();
+            while (iterator.hasNext()) {
+                writer.writeValue(generator, iterator.next());
+                generator.writeRaw('\n');
+            }
+        }
     }
 
     @PostMapping
+    @AdmissionControlled
     public VideoResponseDTO create(@RequestBody @Valid VideoRequestDTO videoRequest) {
         return videoService.create(videoRequest);
     }
 
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @AdmissionControlled(Priority.LOW)
+    public List<VideoBatchResultDTO> createBatch(@RequestBody List<VideoRequestDTO> videoRequests) {
+        return videoBatchService.create(videoRequests.iterator());
+    }
+
+    /**
+     * Reads one video per line as the batch is consumed. A line that is not a valid video is
+     * reported as {@code INVALID} like any other bad item, so the results still cover every line.
+     */
+    @PostMapping(value = "/batch", consumes = "application/x-ndjson")
+    @AdmissionControlled(Priority.LOW)
+    public List<VideoBatchResultDTO> createBatch(InputStream body) {
+        ObjectReader reader = objectMapper.readerFor(VideoRequestDTO.class);
+        Stream<String> lines = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8)).lines();
+        return videoBatchService.createItems(lines
+                .filter(StringUtils::hasText)
+                .map(line -> readItem(reader, line))
+                .iterator());
+    }
+
+    private static VideoBatchService.Item readItem(ObjectReader reader, String line) {
+        try {
+            return VideoBatchService.Item.of(reader.readValue(line));
+        } catch (JsonProcessingException e) {
+            return VideoBatchService.Item.unreadable(e.getOriginalMessage());
+        }
+    }
+
+    /**
+     * The most viewed videos of the last hour, see {@link com.movieflix.service.TrendingVideos}.
+     */
+    @GetMapping("/trending")
+    public List<TrendingVideoDTO> findTrending(
+            @RequestParam(required = false) String categoryId,
+            @RequestParam(required = false, defaultValue = "10") Integer size) {
+        return videoViewService.findTrending(categoryId, size);
+    }
+
+    /**
+     * Writes the cached JSON of the video, see {@link com.movieflix.service.VideoBodyCache}. Other
+     * formats and projections are served by {@link #findById(String, String, String)}.
+     */
+    @GetMapping(value = "/{id}", params = "!fields", produces = MediaType.APPLICATION_JSON_VALUE)
+    @AdmissionControlled
+    public ResponseEntity<byte[]> findEncodedById(
+            @PathVariable String id,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return ConditionalResponses.getEncoded(ifNoneMatch, acceptEncoding, videoCacheControl, videoService.findBodyById(id));
+    }
+
     @GetMapping("/{id}")
-    public VideoResponseDTO findById(@PathVariable String id) {
-        return videoService.findById(id);
+    @AdmissionControlled
+    public ResponseEntity<VideoResponseDTO> findById(
+            @PathVariable String id,
+            @RequestParam(required = false) String fields,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        Set<String> projection = VideoFields.parse(fields);
+        return ConditionalResponses.get(ifNoneMatch, videoCacheControl, videoService.findById(id, projection));
+    }
+
+    @PostMapping("/{id}/views")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public void recordView(@PathVariable String id) {
+        videoViewService.record(id);
     }
 
     @PutMapping("/{id}")
-    public VideoResponseDTO update(@PathVariable String id, @RequestBody @Valid  VideoRequestDTO videoRequest) {
-        return videoService.update(id, videoRequest);
+    @AdmissionControlled
+    public VideoResponseDTO update(
+            @PathVariable String id,
+            @RequestBody @Valid  VideoRequestDTO videoRequest,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return videoService.update(id, videoRequest, ConditionalResponses.expectedVersion(ifMatch));
     }
 
     @DeleteMapping("/{id}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
-    public void delete(@PathVariable String id) {
-        videoService.delete(id);
+    @AdmissionControlled
+    public void delete(
+            @PathVariable String id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        videoService.delete(id, ConditionalResponses.expectedVersion(ifMatch));
     }
 }
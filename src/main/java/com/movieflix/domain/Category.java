@@ -1,21 +1,28 @@
 package com.movieflix.domain;
 
+import com.querydsl.core.annotations.QueryEntity;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
 import org.springframework.data.mongodb.core.mapping.Document;
 
-@Document(collection = "categories")
+@QueryEntity
+@Document(collection = Category.COLLECTION)
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 public class Category {
 
+    public static final String COLLECTION = "categories";
+
     @Id
     private String id;
     private String title;
     private String color;
+    @Version
+    private Long version;
 }
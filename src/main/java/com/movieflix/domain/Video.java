@@ -3,22 +3,35 @@ package com.movieflix.domain;
 import com.querydsl.core.annotations.QueryEntity;
 import lombok.*;
 import org.springframework.data.annotation.Id;
-import org.springframework.data.mongodb.core.mapping.DBRef;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.index.TextIndexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 @QueryEntity
-@Document(collection = "videos")
+@Document(collection = Video.COLLECTION)
+@CompoundIndex(name = "category_id", def = "{'category._id': 1, '_id': 1}")
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 public class Video {
 
+    public static final String COLLECTION = "videos";
+
     @Id
     private String id;
+    @Indexed
+    @TextIndexed
     private String title;
     private String description;
     private String url;
-    @DBRef
     private Category category;
+    @Version
+    private Long version;
+    /**
+     * Total views, added in batches by {@code VideoViewService}. Not part of the representation.
+     */
+    private Long views;
 }
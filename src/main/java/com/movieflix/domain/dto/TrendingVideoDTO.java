@@ -0,0 +1,18 @@
+package com.movieflix.domain.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TrendingVideoDTO {
+
+    private String id;
+    private String title;
+    private String categoryId;
+    private long views;
+}
@@ -0,0 +1,17 @@
+package com.movieflix.domain.dto;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * A response body with the version of the document it was built from, which its ETag is derived
+ * from.
+ */
+@Getter
+@RequiredArgsConstructor(staticName = "of")
+public class Versioned<T> {
+
+    private final long version;
+
+    private final T body;
+}
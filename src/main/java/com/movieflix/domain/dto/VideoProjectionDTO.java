@@ -0,0 +1,15 @@
+package com.movieflix.domain.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.NoArgsConstructor;
+
+/**
+ * A video read with only the requested {@code fields}. The fields that were not read are left out
+ * of the JSON, where a whole {@link VideoResponseDTO} sends its missing values as {@code null}.
+ * This relies on Jackson picking the serializer by runtime type, as it does for response bodies
+ * and page contents, not for values written with a writer typed as {@code VideoResponseDTO}.
+ */
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class VideoProjectionDTO extends VideoResponseDTO {
+}
@@ -0,0 +1,14 @@
+package com.movieflix.exception;
+
+import lombok.Getter;
+
+@Getter
+public class ConcurrencyLimitException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public ConcurrencyLimitException(long retryAfterSeconds) {
+        super("Too many concurrent requests");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
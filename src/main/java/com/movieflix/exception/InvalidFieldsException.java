@@ -0,0 +1,8 @@
+package com.movieflix.exception;
+
+public class InvalidFieldsException extends RuntimeException {
+
+    public InvalidFieldsException() {
+        super("Invalid fields");
+    }
+}
@@ -0,0 +1,8 @@
+package com.movieflix.exception;
+
+public class InvalidResumeTokenException extends RuntimeException {
+
+    public InvalidResumeTokenException() {
+        super("Invalid resume token");
+    }
+}
@@ -0,0 +1,8 @@
+package com.movieflix.exception;
+
+public class ResumeTokenExpiredException extends RuntimeException {
+
+    public ResumeTokenExpiredException() {
+        super("Resume token expired");
+    }
+}
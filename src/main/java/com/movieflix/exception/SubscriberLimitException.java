@@ -0,0 +1,8 @@
+package com.movieflix.exception;
+
+public class SubscriberLimitException extends RuntimeException {
+
+    public SubscriberLimitException() {
+        super("Too many subscribers");
+    }
+}
@@ -0,0 +1,8 @@
+package com.movieflix.exception;
+
+public class VersionConflictException extends RuntimeException {
+
+    public VersionConflictException() {
+        super("Version conflict");
+    }
+}
@@ -0,0 +1,20 @@
+package com.movieflix.mapper;
+
+import com.movieflix.domain.Category;
+import com.movieflix.domain.dto.CategoryRequestDTO;
+import com.movieflix.domain.dto.CategoryResponseDTO;
+import com.movieflix.domain.dto.CategorySummaryDTO;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+@Mapper(componentModel = "spring")
+public interface CategoryMapper {
+
+    CategoryResponseDTO toResponse(Category category);
+
+    CategorySummaryDTO toSummary(Category category, long videoCount);
+
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    Category toEntity(CategoryRequestDTO categoryRequest);
+}
@@ -0,0 +1,43 @@
+package com.movieflix.mapper;
+
+import com.movieflix.domain.Video;
+import com.movieflix.domain.dto.VideoProjectionDTO;
+import com.movieflix.domain.dto.VideoRequestDTO;
+import com.movieflix.domain.dto.VideoResponseDTO;
+import org.mapstruct.BeanMapping;
+import org.mapstruct.Builder;
+import org.mapstruct.InjectionStrategy;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingTarget;
+
+import java.util.Set;
+
+@Mapper(componentModel = "spring", uses = CategoryMapper.class, injectionStrategy = InjectionStrategy.CONSTRUCTOR)
+public interface VideoMapper {
+
+    VideoResponseDTO toResponse(Video video);
+
+    /**
+     * As {@link #toResponse(Video)} for a video read with only {@code fields}, or with every field
+     * when it is empty.
+     */
+    default VideoResponseDTO toResponse(Video video, Set<String> fields) {
+        return fields.isEmpty() ? toResponse(video) : toProjection(video);
+    }
+
+    @BeanMapping(builder = @Builder(disableBuilder = true))
+    VideoProjectionDTO toProjection(Video video);
+
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "category", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "views", ignore = true)
+    Video toEntity(VideoRequestDTO videoRequest);
+
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "category", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "views", ignore = true)
+    void update(VideoRequestDTO videoRequest, @MappingTarget Video video);
+}
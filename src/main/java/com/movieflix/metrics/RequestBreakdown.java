@@ -0,0 +1,79 @@
+package com.movieflix.metrics;
+
+import java.util.function.Supplier;
+
+/**
+ * Time the current request spends in Mongo, in the mappers and serializing the response body.
+ * Held in a thread local: the servlet stack handles a request on a single thread, and the sync
+ * driver publishes command events on the thread that issued the command.
+ */
+public final class RequestBreakdown {
+
+    private static final ThreadLocal<RequestBreakdown> CURRENT = new ThreadLocal<>();
+
+    private long dbNanos;
+
+    private long mappingNanos;
+
+    private long serializationNanos;
+
+    private RequestBreakdown() {
+    }
+
+    static RequestBreakdown start() {
+        RequestBreakdown breakdown = new RequestBreakdown();
+        CURRENT.set(breakdown);
+        return breakdown;
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    static RequestBreakdown current() {
+        return CURRENT.get();
+    }
+
+    public static void addDb(long nanos) {
+        RequestBreakdown breakdown = CURRENT.get();
+        if (breakdown != null) {
+            breakdown.dbNanos += nanos;
+        }
+    }
+
+    public static void addSerialization(long nanos) {
+        RequestBreakdown breakdown = CURRENT.get();
+        if (breakdown != null) {
+            breakdown.serializationNanos += nanos;
+        }
+    }
+
+    /**
+     * Runs the mapping of a service call and adds its time to the current request. Services time a
+     * whole page at once: timing each mapper call would cost about as much as the call itself.
+     */
+    public static <T> T timeMapping(Supplier<T> mapping) {
+        RequestBreakdown breakdown = CURRENT.get();
+        if (breakdown == null) {
+            return mapping.get();
+        }
+        long start = System.nanoTime();
+        try {
+            return mapping.get();
+        } finally {
+            breakdown.mappingNanos += System.nanoTime() - start;
+        }
+    }
+
+    long getDbNanos() {
+        return dbNanos;
+    }
+
+    long getMappingNanos() {
+        return mappingNanos;
+    }
+
+    long getSerializationNanos() {
+        return serializationNanos;
+    }
+}
@@ -0,0 +1,64 @@
+package com.movieflix.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records where each request spent its time as the {@code movieflix.request.breakdown} timer,
+ * tagged with the phase ({@code db}, {@code mapping}, {@code serialization}), the method and the
+ * URI pattern. Streamed responses finish on another thread and are not broken down.
+ */
+@Component
+@Profile("!reactive")
+@RequiredArgsConstructor
+public class RequestBreakdownFilter extends OncePerRequestFilter {
+
+    static final String METRIC = "movieflix.request.breakdown";
+
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RequestBreakdown breakdown = RequestBreakdown.start();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RequestBreakdown.end();
+            if (!isAsyncStarted(request)) {
+                record(request, breakdown);
+            }
+        }
+    }
+
+    private void record(HttpServletRequest request, RequestBreakdown breakdown) {
+        Object uri = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        if (uri == null) {
+            return;
+        }
+        record(request, uri, "db", breakdown.getDbNanos());
+        record(request, uri, "mapping", breakdown.getMappingNanos());
+        record(request, uri, "serialization", breakdown.getSerializationNanos());
+    }
+
+    private void record(HttpServletRequest request, Object uri, String phase, long nanos) {
+        Timer.builder(METRIC)
+                .tag("phase", phase)
+                .tag("method", request.getMethod())
+                .tag("uri", uri.toString())
+                .register(meterRegistry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,52 @@
+package com.movieflix.migration;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Updates;
+import com.movieflix.domain.Category;
+import com.movieflix.domain.Video;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Converts videos written while {@code Video.category} was a {@code @DBRef} into the embedded
+ * category snapshot. Documents are rewritten one category at a time, so the migration is
+ * idempotent and safe to re-run after an interruption.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(value = "migration.category-snapshot.enabled", havingValue = "true", matchIfMissing = true)
+public class CategorySnapshotMigration implements ApplicationRunner {
+
+    private static final String DBREF_ID = "category.$id";
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        MongoCollection<Document> videos = mongoTemplate.getCollection(mongoTemplate.getCollectionName(Video.class));
+        MongoCollection<Document> categories = mongoTemplate.getCollection(mongoTemplate.getCollectionName(Category.class));
+
+        List<BsonValue> categoryIds = videos.distinct(DBREF_ID, Filters.exists(DBREF_ID), BsonValue.class).into(new ArrayList<>());
+        for (BsonValue categoryId : categoryIds) {
+            Document category = categories.find(Filters.eq("_id", categoryId)).first();
+            long migrated = videos.updateMany(Filters.eq(DBREF_ID, categoryId), category != null
+                    ? Updates.set("category", new Document("_id", categoryId)
+                            .append("title", category.get("title"))
+                            .append("color", category.get("color")))
+                    : Updates.unset("category")).getModifiedCount();
+            log.info("Migrated {} videos of category {} to an embedded snapshot", migrated, categoryId);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.movieflix.migration;
+
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Updates;
+import com.movieflix.domain.Category;
+import com.movieflix.domain.Video;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Sets {@code version} to 0 on videos and categories written before the field existed. Spring
+ * Data treats an entity with a {@code null} version as new, so saving one of those documents
+ * would otherwise be attempted as an insert and fail on the duplicate id.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(value = "migration.document-version.enabled", havingValue = "true", matchIfMissing = true)
+public class DocumentVersionMigration implements ApplicationRunner {
+
+    private static final String VERSION = "version";
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        for (Class<?> type : new Class<?>[]{Video.class, Category.class}) {
+            String collection = mongoTemplate.getCollectionName(type);
+            long migrated = mongoTemplate.getCollection(collection)
+                    .updateMany(Filters.exists(VERSION, false), Updates.set(VERSION, 0L))
+                    .getModifiedCount();
+            log.info("Initialized the version of {} documents in {}", migrated, collection);
+        }
+    }
+}
@@ -1,9 +1,74 @@
 package com.movieflix.repository;
 
+import com.movieflix.configuration.CacheConfiguration;
 import com.movieflix.domain.Category;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Category reads are served from an in-process cache. Every write goes through {@link #save},
+ * {@link #update} or one of the {@code deleteById} methods, which invalidate the cache before
+ * returning to the caller. Writes made by other instances are not seen until the entries expire,
+ * except by readers that know the version they need: see {@link #findCurrentById} and
+ * {@link #findAll(long)}.
+ */
 @Repository
-public interface CategoryRepository extends MongoRepository<Category, String> {
+public interface CategoryRepository extends MongoRepository<Category, String>, CategoryRepositoryCustom {
+
+    @Override
+    @Cacheable(CacheConfiguration.CATEGORIES)
+    Optional<Category> findById(String id);
+
+    /**
+     * Reads the category from Mongo and caches it, for a reader that found the cached one older
+     * than the stored version.
+     */
+    @CachePut(value = CacheConfiguration.CATEGORIES, key = "#p0")
+    Optional<Category> findCurrentById(String id);
+
+    Optional<VersionView> findVersionById(String id);
+
+    /**
+     * Every category, cached under the categories change counter read before the call, so a write
+     * from any instance makes the next reader load the list again.
+     */
+    @Cacheable(value = CacheConfiguration.CATEGORY_LIST, key = "#p0")
+    default List<Category> findAll(long collectionVersion) {
+        return findAll();
+    }
+
+    @Override
+    @Caching(evict = {
+            @CacheEvict(value = CacheConfiguration.CATEGORIES, key = "#p0.id"),
+            @CacheEvict(value = CacheConfiguration.CATEGORY_LIST, allEntries = true)
+    })
+    <S extends Category> S save(S category);
+
+    @Override
+    @Caching(evict = {
+            @CacheEvict(value = CacheConfiguration.CATEGORIES, key = "#p0"),
+            @CacheEvict(value = CacheConfiguration.CATEGORY_LIST, allEntries = true)
+    })
+    void deleteById(String id);
+
+    @Override
+    @Caching(evict = {
+            @CacheEvict(value = CacheConfiguration.CATEGORIES, key = "#p0.id"),
+            @CacheEvict(value = CacheConfiguration.CATEGORY_LIST, allEntries = true)
+    })
+    Optional<Category> update(Category category, Long expectedVersion);
+
+    @Override
+    @Caching(evict = {
+            @CacheEvict(value = CacheConfiguration.CATEGORIES, key = "#p0"),
+            @CacheEvict(value = CacheConfiguration.CATEGORY_LIST, allEntries = true)
+    })
+    boolean deleteById(String id, Long expectedVersion);
 }
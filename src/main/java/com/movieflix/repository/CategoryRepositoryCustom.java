@@ -0,0 +1,24 @@
+package com.movieflix.repository;
+
+import com.movieflix.domain.Category;
+
+import java.util.Optional;
+
+public interface CategoryRepositoryCustom {
+
+    /**
+     * Replaces the title and color of a category and increments its version with a single
+     * findAndModify. When {@code expectedVersion} is not {@code null}, only that version is updated.
+     *
+     * @return the updated category, or empty when no category matched
+     */
+    Optional<Category> update(Category category, Long expectedVersion);
+
+    /**
+     * Deletes a category with a single round trip. When {@code expectedVersion} is not {@code null},
+     * only that version is deleted.
+     *
+     * @return whether a category was deleted
+     */
+    boolean deleteById(String id, Long expectedVersion);
+}
@@ -0,0 +1,37 @@
+package com.movieflix.repository;
+
+import com.movieflix.domain.Category;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.Optional;
+
+@RequiredArgsConstructor
+public class CategoryRepositoryCustomImpl implements CategoryRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    private final ChangeCounterRepository changeCounterRepository;
+
+    @Override
+    public Optional<Category> update(Category category, Long expectedVersion) {
+        Update update = new Update()
+                .set("title", category.getTitle())
+                .set("color", category.getColor())
+                .inc("version", 1);
+        Category updated = mongoTemplate.findAndModify(VersionedQueries.byIdAndVersion(category.getId(), expectedVersion), update,
+                FindAndModifyOptions.options().returnNew(true), Category.class);
+        if (updated != null) {
+            // findAndModify publishes no mapping events, so the change counter listener does not see it
+            changeCounterRepository.increment(Category.COLLECTION);
+        }
+        return Optional.ofNullable(updated);
+    }
+
+    @Override
+    public boolean deleteById(String id, Long expectedVersion) {
+        return mongoTemplate.remove(VersionedQueries.byIdAndVersion(id, expectedVersion), Category.class).getDeletedCount() > 0;
+    }
+}
@@ -0,0 +1,66 @@
+package com.movieflix.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Repository;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Number of videos in each category, one document per category. Kept up to date incrementally by
+ * the video writes and corrected from time to time by {@code CategoryVideoCountReconciler}, so
+ * reading every count costs one document per category whatever the number of videos.
+ */
+@Repository
+@RequiredArgsConstructor
+public class CategoryVideoCountRepository {
+
+    public static final String COLLECTION = "categoryVideoCounts";
+
+    private static final String COUNT = "count";
+
+    private final MongoTemplate mongoTemplate;
+
+    public Map<String, Long> findAll() {
+        Map<String, Long> counts = new HashMap<>();
+        mongoTemplate.findAll(Document.class, COLLECTION)
+                .forEach(count -> counts.put(count.get("_id").toString(), count.get(COUNT, Number.class).longValue()));
+        return counts;
+    }
+
+    public void increment(String categoryId, long delta) {
+        incrementAll(Map.of(categoryId, delta));
+    }
+
+    /**
+     * Applies every delta with a single bulk write, e.g. {@code -1} and {@code +1} when a video
+     * moves between categories.
+     */
+    public void incrementAll(Map<String, Long> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        BulkOperations operations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, COLLECTION);
+        deltas.forEach((categoryId, delta) -> operations.upsert(byId(categoryId), new Update().inc(COUNT, delta)));
+        operations.execute();
+    }
+
+    public void delete(String categoryId) {
+        mongoTemplate.remove(byId(categoryId), COLLECTION);
+    }
+
+    /**
+     * Ids that look like ObjectIds are stored as ObjectIds, the same mapping {@code MongoTemplate} applies
+     * to the {@code category.id} of the videos; {@link #findAll()} reads them back as strings.
+     */
+    private static Query byId(String categoryId) {
+        return Query.query(where("_id").is(categoryId));
+    }
+}
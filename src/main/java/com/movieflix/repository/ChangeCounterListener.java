@@ -0,0 +1,31 @@
+package com.movieflix.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bumps the {@link ChangeCounterRepository} counter of a collection after every entity save or
+ * delete. Template updates and bulk writes publish no events and bump the counter themselves.
+ * The increment is a blocking call, so the listener is left out of the reactive stack.
+ */
+@Component
+@Profile("!reactive")
+@RequiredArgsConstructor
+public class ChangeCounterListener extends AbstractMongoEventListener<Object> {
+
+    private final ChangeCounterRepository changeCounterRepository;
+
+    @Override
+    public void onAfterSave(AfterSaveEvent<Object> event) {
+        changeCounterRepository.increment(event.getCollectionName());
+    }
+
+    @Override
+    public void onAfterDelete(AfterDeleteEvent<Object> event) {
+        changeCounterRepository.increment(event.getCollectionName());
+    }
+}
@@ -0,0 +1,91 @@
+package com.movieflix.repository;
+
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * One write counter per collection. Listings have no single document version to derive an ETag
+ * from, so they use the counter of the collection they read. The counters live in Mongo rather
+ * than in memory so every instance sees writes made by the others.
+ * <p>
+ * Reads are kept for {@code change-counter.cache-ms}, so listings do not pay a round trip for the
+ * counter on every request. A write on this instance drops its counter right away, a write on
+ * another one can still be revalidated as unchanged until it expires. Every write of a collection
+ * increments the same document, which serializes them on it: one small update per write, fine at
+ * the write rates of a catalog, but the first thing to split if writes ever contend on it.
+ */
+@Repository
+public class ChangeCounterRepository {
+
+    static final String COLLECTION = "changeCounters";
+
+    private final MongoTemplate mongoTemplate;
+
+    private final LoadingCache<String, Long> counters;
+
+    public ChangeCounterRepository(MongoTemplate mongoTemplate, @Value("${change-counter.cache-ms:1000}") long cacheMs) {
+        this.mongoTemplate = mongoTemplate;
+        this.counters = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMillis(cacheMs))
+                .build(new CacheLoader<>() {
+
+                    @Override
+                    public Long load(String collection) {
+                        return read(Set.of(collection)).get(collection);
+                    }
+
+                    @Override
+                    public Map<String, Long> loadAll(Iterable<? extends String> collections) {
+                        Set<String> keys = new HashSet<>();
+                        collections.forEach(keys::add);
+                        return read(keys);
+                    }
+                });
+    }
+
+    public long get(String collection) {
+        return counters.get(collection);
+    }
+
+    /**
+     * Sum of the counters of several collections, the missing ones read in one round trip.
+     * Counters only grow, so the sum changes whenever any of them does and versions a response
+     * built from all of them.
+     */
+    public long sum(String... collections) {
+        return counters.getAll(Set.of(collections)).values().stream()
+                .mapToLong(Long::longValue)
+                .sum();
+    }
+
+    public void increment(String collection) {
+        mongoTemplate.upsert(Query.query(where("_id").is(collection)), new Update().inc("value", 1L), COLLECTION);
+        counters.invalidate(collection);
+    }
+
+    /**
+     * @return the counter of each collection, 0 for one never written
+     */
+    private Map<String, Long> read(Set<String> collections) {
+        Map<String, Long> values = new HashMap<>();
+        collections.forEach(collection -> values.put(collection, 0L));
+        mongoTemplate.find(Query.query(where("_id").in(collections)), Document.class, COLLECTION)
+                .forEach(counter -> values.put(counter.getString("_id"), counter.get("value", Number.class).longValue()));
+        return values;
+    }
+}
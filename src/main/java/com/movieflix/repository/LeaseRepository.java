@@ -0,0 +1,43 @@
+package com.movieflix.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Time-limited leases that let a single instance run a scheduled job. A lease is one document
+ * holding its expiry: acquiring it is one upsert that only matches an expired lease, so of the
+ * instances racing for it all but one fail on the duplicate id. A holder that dies releases the
+ * lease by letting it expire.
+ */
+@Repository
+@RequiredArgsConstructor
+public class LeaseRepository {
+
+    static final String COLLECTION = "leases";
+
+    private final MongoTemplate mongoTemplate;
+
+    /**
+     * @return whether this instance now holds the lease {@code name} for {@code duration}
+     */
+    public boolean tryAcquire(String name, Duration duration) {
+        Instant now = Instant.now();
+        Query expired = Query.query(where("_id").is(name).and("expiresAt").lte(Date.from(now)));
+        try {
+            mongoTemplate.upsert(expired, Update.update("expiresAt", Date.from(now.plus(duration))), COLLECTION);
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+}
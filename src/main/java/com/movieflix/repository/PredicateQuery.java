@@ -0,0 +1,47 @@
+package com.movieflix.repository;
+
+import com.movieflix.domain.QVideo;
+import com.movieflix.domain.Video;
+import com.querydsl.core.BooleanBuilder;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.dsl.ComparablePath;
+import com.querydsl.core.types.dsl.Expressions;
+import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.repository.support.SpringDataMongodbQuery;
+
+/**
+ * The Mongo query Querydsl builds for a predicate over videos, so a projection or a page can be
+ * added to it. Building it only maps the predicate and does no I/O, so the reactive repository
+ * uses it too, with the blocking template as the mapper.
+ */
+class PredicateQuery extends SpringDataMongodbQuery<Video> {
+
+    private PredicateQuery(MongoOperations operations, Predicate predicate) {
+        super(operations, Video.class);
+        where(predicate);
+    }
+
+    static Query toQuery(MongoOperations operations, Predicate predicate) {
+        return new PredicateQuery(operations, predicate).createQuery();
+    }
+
+    static long count(MongoOperations operations, Predicate predicate) {
+        return new PredicateQuery(operations, predicate).fetchCount();
+    }
+
+    /**
+     * {@code predicate} restricted to the videos whose id is greater than {@code afterId}, or
+     * unchanged when it is {@code null}.
+     */
+    static Predicate after(Predicate predicate, String afterId) {
+        BooleanBuilder where = new BooleanBuilder(predicate);
+        if (afterId != null) {
+            // compared as an ObjectId, the query mapper does not convert string ids inside $gt
+            ComparablePath<ObjectId> id = Expressions.comparablePath(ObjectId.class, new QVideo("video"), "id");
+            where.and(id.gt(new ObjectId(afterId)));
+        }
+        return where;
+    }
+}
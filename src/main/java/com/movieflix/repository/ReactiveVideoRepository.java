@@ -0,0 +1,12 @@
+package com.movieflix.repository;
+
+import com.movieflix.domain.Video;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.data.querydsl.ReactiveQuerydslPredicateExecutor;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+@Repository
+public interface ReactiveVideoRepository extends ReactiveMongoRepository<Video, String>, ReactiveQuerydslPredicateExecutor<Video>, ReactiveVideoRepositoryCustom {
+    Mono<Long> countByCategoryId(String categoryId);
+}
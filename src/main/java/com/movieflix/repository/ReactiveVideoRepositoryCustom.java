@@ -0,0 +1,44 @@
+package com.movieflix.repository;
+
+import com.movieflix.domain.Video;
+import com.querydsl.core.types.Predicate;
+import org.springframework.data.domain.Pageable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+
+public interface ReactiveVideoRepositoryCustom {
+
+    /**
+     * Content of a page of the videos matching {@code predicate}, as
+     * {@link VideoRepositoryCustom#findAll}. Mongo skips to the page, so deep pages are not read
+     * and discarded; the count is {@code count(predicate)}.
+     */
+    Flux<Video> findAll(Predicate predicate, Collection<String> fields, Pageable page);
+
+    /**
+     * A video with only {@code fields} read, as {@link VideoRepositoryCustom#findById}.
+     */
+    Mono<Video> findById(String id, Collection<String> fields);
+
+    /**
+     * Content of a page of the full-text search, as {@link VideoRepositoryCustom#search}.
+     */
+    Flux<Video> search(String text, Collection<String> fields, Pageable page);
+
+    /**
+     * Counts the videos {@link #search} pages through.
+     */
+    Mono<Long> countSearch(String text);
+
+    /**
+     * Keyset page of the videos matching {@code predicate}, as {@link VideoRepositoryCustom#findAllAfter}.
+     */
+    Flux<Video> findAllAfter(Predicate predicate, String afterId, int limit, Collection<String> fields);
+
+    /**
+     * Content of a page of the videos of a category, as {@link VideoRepositoryCustom#findByCategoryId}.
+     */
+    Flux<Video> findByCategoryId(String categoryId, Collection<String> fields, Pageable page);
+}
@@ -0,0 +1,73 @@
+package com.movieflix.repository;
+
+import com.movieflix.domain.Video;
+import com.querydsl.core.types.Predicate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.TextCriteria;
+import org.springframework.data.mongodb.core.query.TextQuery;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Predicates are mapped to queries with {@link PredicateQuery}, as on the blocking side, which only
+ * uses {@code mongoOperations} to map them: every query runs on the reactive template.
+ */
+@RequiredArgsConstructor
+public class ReactiveVideoRepositoryCustomImpl implements ReactiveVideoRepositoryCustom {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    private final MongoOperations mongoOperations;
+
+    @Override
+    public Flux<Video> findAll(Predicate predicate, Collection<String> fields, Pageable page) {
+        return mongoTemplate.find(project(PredicateQuery.toQuery(mongoOperations, predicate), fields).with(page), Video.class);
+    }
+
+    @Override
+    public Mono<Video> findById(String id, Collection<String> fields) {
+        return mongoTemplate.findOne(project(Query.query(where("id").is(id)), fields), Video.class);
+    }
+
+    @Override
+    public Flux<Video> search(String text, Collection<String> fields, Pageable page) {
+        TextCriteria criteria = TextCriteria.forDefaultLanguage().matching(text);
+        return mongoTemplate.find(project(TextQuery.queryText(criteria).sortByScore(), fields).with(page), Video.class);
+    }
+
+    @Override
+    public Mono<Long> countSearch(String text) {
+        return mongoTemplate.count(TextQuery.queryText(TextCriteria.forDefaultLanguage().matching(text)), Video.class);
+    }
+
+    @Override
+    public Flux<Video> findAllAfter(Predicate predicate, String afterId, int limit, Collection<String> fields) {
+        Query query = project(PredicateQuery.toQuery(mongoOperations, PredicateQuery.after(predicate, afterId)), fields)
+                .with(Sort.by("id"))
+                .limit(limit);
+        return mongoTemplate.find(query, Video.class);
+    }
+
+    @Override
+    public Flux<Video> findByCategoryId(String categoryId, Collection<String> fields, Pageable page) {
+        Query query = project(Query.query(where("category.id").is(categoryId)), fields).with(page);
+        if (page.getSort().isUnsorted()) {
+            query.with(Sort.by("id"));
+        }
+        return mongoTemplate.find(query, Video.class);
+    }
+
+    private static Query project(Query query, Collection<String> fields) {
+        fields.forEach(query.fields()::include);
+        return query;
+    }
+}
@@ -0,0 +1,17 @@
+package com.movieflix.repository;
+
+/**
+ * Projection reading only the {@code @Version} of a document.
+ */
+public interface VersionView {
+
+    Long getVersion();
+
+    /**
+     * A document written before versions existed has none, and counts as version 0, the version
+     * {@link com.movieflix.migration.DocumentVersionMigration} gives it.
+     */
+    static long orZero(Long version) {
+        return version != null ? version : 0;
+    }
+}
@@ -0,0 +1,27 @@
+package com.movieflix.repository;
+
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+final class VersionedQueries {
+
+    private VersionedQueries() {
+    }
+
+    /**
+     * Matches the document with the given id, and only at {@code expectedVersion} when it is not
+     * {@code null}. Version 0 also matches a document without a version, see
+     * {@link VersionView#orZero}.
+     */
+    static Query byIdAndVersion(String id, Long expectedVersion) {
+        Criteria criteria = where("id").is(id);
+        if (expectedVersion != null && expectedVersion == 0) {
+            criteria.and("version").in(0L, null);
+        } else if (expectedVersion != null) {
+            criteria.and("version").is(expectedVersion);
+        }
+        return Query.query(criteria);
+    }
+}
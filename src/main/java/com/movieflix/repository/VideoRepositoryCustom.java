@@ -0,0 +1,118 @@
+package com.movieflix.repository;
+
+import com.movieflix.domain.Category;
+import com.movieflix.domain.Video;
+import com.querydsl.core.types.Predicate;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+public interface VideoRepositoryCustom {
+
+    /**
+     * Page of the videos matching {@code predicate}. Only {@code fields} are read, or every field
+     * when it is empty; the id is always read.
+     */
+    Page<Video> findAll(Predicate predicate, Collection<String> fields, Pageable page);
+
+    /**
+     * A video with only {@code fields} read, as {@link #findAll(Predicate, Collection, Pageable)}.
+     */
+    Optional<Video> findById(String id, Collection<String> fields);
+
+    /**
+     * The videos with the given ids, with only {@code fields} read, or every field when it is empty.
+     */
+    List<Video> findAllById(Collection<String> ids, Collection<String> fields);
+
+    /**
+     * Adds the views of each video with one unordered bulk write. Neither the version nor the change
+     * counter moves, as views are not part of the video representation.
+     */
+    void incrementViews(Map<String, Long> views);
+
+    /**
+     * Full-text search over the title text index. Results are ordered by relevance, and the sort
+     * of {@code page} only breaks ties between equally relevant videos. Only {@code fields} are
+     * read, or every field when it is empty.
+     */
+    Page<Video> search(String text, Collection<String> fields, Pageable page);
+
+    /**
+     * Keyset page: up to {@code limit} videos matching {@code predicate} whose id is greater than
+     * {@code afterId} (or from the start when {@code null}), ordered by id. Runs no count query and
+     * costs the same at any depth. Only {@code fields} are read, or every field when it is empty.
+     */
+    List<Video> findAllAfter(Predicate predicate, String afterId, int limit, Collection<String> fields);
+
+    /**
+     * Page of the videos of a category, ordered by id unless {@code page} is sorted. Only
+     * {@code fields} are read, or every field when it is empty; the id is always read.
+     */
+    Page<Video> findByCategoryId(String categoryId, Collection<String> fields, Pageable page);
+
+    /**
+     * Keyset page of the videos of a category, as {@link #findAllAfter} with the projection of
+     * {@link #findByCategoryId}.
+     */
+    List<Video> findByCategoryIdAfter(String categoryId, String afterId, int limit, Collection<String> fields);
+
+    /**
+     * Lazily reads every video matching {@code predicate} through a server-side cursor. The returned
+     * stream holds the cursor open and must be closed by the caller.
+     */
+    Stream<Video> stream(Predicate predicate);
+
+    /**
+     * Replaces the editable fields and the category snapshot of a video and increments its version
+     * with a single findAndModify. When {@code expectedVersion} is not {@code null}, only that
+     * version is updated.
+     *
+     * @return the video as it was before the update, with only its id, category id and version
+     * read, or empty when no video matched
+     */
+    Optional<Video> update(Video video, Long expectedVersion);
+
+    /**
+     * Deletes a video with a single round trip. When {@code expectedVersion} is not {@code null},
+     * only that version is deleted.
+     *
+     * @return the deleted video, with only its id and category id read, or empty when no video
+     * matched
+     */
+    Optional<Video> deleteById(String id, Long expectedVersion);
+
+    /**
+     * Inserts all videos with a single unordered bulk write, so one failing document does not stop
+     * the others. Failures are reported through {@code BulkOperationException#getErrors()}, indexed
+     * by position in {@code videos}.
+     */
+    void bulkInsert(List<Video> videos);
+
+    /**
+     * Counts the videos of every category with one aggregation over the whole collection. Videos
+     * without a category are not counted.
+     */
+    Map<String, Long> countByCategory();
+
+    /**
+     * Refreshes the embedded category snapshot of at most {@code batchSize} videos that still hold
+     * stale data for the given category.
+     *
+     * @return the number of videos updated
+     */
+    long updateCategorySnapshot(Category category, int batchSize);
+
+    /**
+     * Removes the embedded category snapshot of at most {@code batchSize} videos that reference
+     * the given category.
+     *
+     * @return the number of videos updated
+     */
+    long removeCategorySnapshot(String categoryId, int batchSize);
+}
@@ -0,0 +1,217 @@
+package com.movieflix.repository;
+
+import com.movieflix.domain.Category;
+import com.movieflix.domain.Video;
+import com.mysema.commons.lang.CloseableIterator;
+import com.querydsl.core.types.Predicate;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.TypedAggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.TextCriteria;
+import org.springframework.data.mongodb.core.query.TextQuery;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.mongodb.repository.support.SpringDataMongodbQuery;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+@RequiredArgsConstructor
+public class VideoRepositoryCustomImpl implements VideoRepositoryCustom {
+
+    /**
+     * Stored field name: findAndModify and findAndRemove do not map the projection onto the entity.
+     */
+    private static final String CATEGORY_ID = "category._id";
+
+    private final MongoTemplate mongoTemplate;
+
+    private final ChangeCounterRepository changeCounterRepository;
+
+    @Override
+    public Page<Video> findAll(Predicate predicate, Collection<String> fields, Pageable page) {
+        Query query = project(PredicateQuery.toQuery(mongoTemplate, predicate), fields).with(page);
+        List<Video> videos = mongoTemplate.find(query, Video.class);
+        return PageableExecutionUtils.getPage(videos, page, () -> PredicateQuery.count(mongoTemplate, predicate));
+    }
+
+    @Override
+    public Optional<Video> findById(String id, Collection<String> fields) {
+        return Optional.ofNullable(mongoTemplate.findOne(project(Query.query(where("id").is(id)), fields), Video.class));
+    }
+
+    @Override
+    public List<Video> findAllById(Collection<String> ids, Collection<String> fields) {
+        return mongoTemplate.find(project(Query.query(where("id").in(ids)), fields), Video.class);
+    }
+
+    @Override
+    public void incrementViews(Map<String, Long> views) {
+        if (views.isEmpty()) {
+            return;
+        }
+        BulkOperations operations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Video.class);
+        views.forEach((id, count) -> operations.updateOne(Query.query(where("id").is(id)), new Update().inc("views", count)));
+        operations.execute();
+    }
+
+    @Override
+    public Page<Video> search(String text, Collection<String> fields, Pageable page) {
+        TextCriteria criteria = TextCriteria.forDefaultLanguage().matching(text);
+        Query query = project(TextQuery.queryText(criteria).sortByScore(), fields).with(page);
+        List<Video> videos = mongoTemplate.find(query, Video.class);
+        return PageableExecutionUtils.getPage(videos, page, () -> mongoTemplate.count(TextQuery.queryText(criteria), Video.class));
+    }
+
+    @Override
+    public List<Video> findAllAfter(Predicate predicate, String afterId, int limit, Collection<String> fields) {
+        Query query = project(PredicateQuery.toQuery(mongoTemplate, PredicateQuery.after(predicate, afterId)), fields)
+                .with(Sort.by("id"))
+                .limit(limit);
+        return mongoTemplate.find(query, Video.class);
+    }
+
+    @Override
+    public Page<Video> findByCategoryId(String categoryId, Collection<String> fields, Pageable page) {
+        Query query = categoryQuery(categoryId, fields).with(page);
+        if (page.getSort().isUnsorted()) {
+            query.with(Sort.by("id"));
+        }
+        List<Video> videos = mongoTemplate.find(query, Video.class);
+        return PageableExecutionUtils.getPage(videos, page, () -> mongoTemplate.count(categoryQuery(categoryId, List.of()), Video.class));
+    }
+
+    @Override
+    public List<Video> findByCategoryIdAfter(String categoryId, String afterId, int limit, Collection<String> fields) {
+        Query query = categoryQuery(categoryId, fields).with(Sort.by("id")).limit(limit);
+        if (afterId != null) {
+            query.addCriteria(where("id").gt(new ObjectId(afterId)));
+        }
+        return mongoTemplate.find(query, Video.class);
+    }
+
+    private Query categoryQuery(String categoryId, Collection<String> fields) {
+        return project(Query.query(where("category.id").is(categoryId)), fields);
+    }
+
+    /**
+     * Reads only {@code fields}, or every field when it is empty. Leaving the category out skips
+     * reading and mapping its snapshot.
+     */
+    private static Query project(Query query, Collection<String> fields) {
+        fields.forEach(query.fields()::include);
+        return query;
+    }
+
+    @Override
+    public Stream<Video> stream(Predicate predicate) {
+        CloseableIterator<Video> videos = new SpringDataMongodbQuery<>(mongoTemplate, Video.class)
+                .where(predicate)
+                .iterate();
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(videos, Spliterator.ORDERED), false)
+                .onClose(videos::close);
+    }
+
+    @Override
+    public Optional<Video> update(Video video, Long expectedVersion) {
+        Update update = new Update()
+                .set("title", video.getTitle())
+                .set("description", video.getDescription())
+                .set("url", video.getUrl())
+                .set("category", video.getCategory())
+                .inc("version", 1);
+        Query query = VersionedQueries.byIdAndVersion(video.getId(), expectedVersion);
+        query.fields().include(CATEGORY_ID, "version");
+        Video previous = mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(false), Video.class);
+        if (previous != null) {
+            // findAndModify publishes no mapping events, so the change counter listener does not see it
+            changeCounterRepository.increment(Video.COLLECTION);
+        }
+        return Optional.ofNullable(previous);
+    }
+
+    @Override
+    public Optional<Video> deleteById(String id, Long expectedVersion) {
+        Query query = VersionedQueries.byIdAndVersion(id, expectedVersion);
+        query.fields().include(CATEGORY_ID);
+        Video deleted = mongoTemplate.findAndRemove(query, Video.class);
+        if (deleted != null) {
+            // findAndRemove publishes no mapping events either
+            changeCounterRepository.increment(Video.COLLECTION);
+        }
+        return Optional.ofNullable(deleted);
+    }
+
+    @Override
+    public Map<String, Long> countByCategory() {
+        TypedAggregation<Video> aggregation = Aggregation.newAggregation(Video.class,
+                Aggregation.match(where("category.id").exists(true)),
+                Aggregation.group("category.id").count().as("count"));
+        Map<String, Long> counts = new HashMap<>();
+        mongoTemplate.aggregate(aggregation, Document.class)
+                .forEach(count -> counts.put(count.get("_id").toString(), count.get("count", Number.class).longValue()));
+        return counts;
+    }
+
+    @Override
+    public void bulkInsert(List<Video> videos) {
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Video.class)
+                    .insert(videos)
+                    .execute();
+        } finally {
+            // a partially failed bulk write still inserted the other videos
+            changeCounterRepository.increment(mongoTemplate.getCollectionName(Video.class));
+        }
+    }
+
+    @Override
+    public long updateCategorySnapshot(Category category, int batchSize) {
+        Criteria stale = where("category.id").is(category.getId())
+                .orOperator(where("category.title").ne(category.getTitle()), where("category.color").ne(category.getColor()));
+        Update update = new Update()
+                .set("category.title", category.getTitle())
+                .set("category.color", category.getColor());
+        return updateBatch(stale, update, batchSize);
+    }
+
+    @Override
+    public long removeCategorySnapshot(String categoryId, int batchSize) {
+        return updateBatch(where("category.id").is(categoryId), new Update().unset("category"), batchSize);
+    }
+
+    private long updateBatch(Criteria criteria, Update update, int batchSize) {
+        Query query = Query.query(criteria).limit(batchSize);
+        query.fields().include("id");
+        List<String> ids = mongoTemplate.find(query, Video.class).stream()
+                .map(Video::getId)
+                .collect(Collectors.toList());
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        // the snapshot is part of the video representation, so its version and ETag must change too
+        long modified = mongoTemplate.updateMulti(Query.query(where("id").in(ids)), update.inc("version", 1), Video.class).getModifiedCount();
+        changeCounterRepository.increment(mongoTemplate.getCollectionName(Video.class));
+        return modified;
+    }
+}
@@ -0,0 +1,439 @@
+package com.movieflix.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.MongoException;
+import com.mongodb.client.ChangeStreamIterable;
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.FullDocument;
+import com.mongodb.client.model.changestream.OperationType;
+import com.movieflix.domain.Category;
+import com.movieflix.domain.Video;
+import com.movieflix.domain.dto.ChangeEventDTO;
+import com.movieflix.exception.InvalidResumeTokenException;
+import com.movieflix.exception.ResumeTokenExpiredException;
+import com.movieflix.exception.SubscriberLimitException;
+import com.movieflix.mapper.CategoryMapper;
+import com.movieflix.mapper.VideoMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.BsonDocument;
+import org.bson.BsonInvalidOperationException;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.bson.json.JsonParseException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Deque;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Pushes the writes to videos and categories to server-sent event subscribers, straight from Mongo
+ * change streams, so downstream caches and indexers sync incrementally instead of polling the listings.
+ * The instance tails one stream per collection, opened by the first subscriber and closed once there
+ * has been none for {@code change-feed.idle-close-ms}, as they look up the full document of every
+ * write. The tailing thread serializes every event once and only queues it to the subscribers, each
+ * sent to by a task of its own, so a slow consumer neither stalls the feed nor the others: one that
+ * falls {@code change-feed.max-pending-events} behind is dropped. The id of every event is a resume
+ * token holding the position of both streams: a reconnecting EventSource sends it back as
+ * Last-Event-ID and is replayed what it missed from the last {@code change-feed.buffer-size} events.
+ * A token older than that, or issued by another instance, answers 410 once the streams are open, and
+ * the consumer syncs again from the listings, as it does after the {@code reset} event that ends the
+ * feed when a collection is dropped.
+ */
+@Slf4j
+@Service
+@Profile("!reactive")
+@RequiredArgsConstructor
+public class CatalogChangeFeed {
+
+    private static final List<String> COLLECTIONS = List.of(Video.COLLECTION, Category.COLLECTION);
+
+    private static final Set<OperationType> OPERATIONS =
+            EnumSet.of(OperationType.INSERT, OperationType.UPDATE, OperationType.REPLACE, OperationType.DELETE);
+
+    /**
+     * ChangeStreamFatalError and ChangeStreamHistoryLost: the resume point is no longer in the oplog.
+     */
+    private static final Set<Integer> HISTORY_LOST = Set.of(280, 286);
+
+    /**
+     * Leaves out, on the server, the view counts added to videos: they are not part of the
+     * representation and far too frequent to push, or even to look up. Every other update of a video
+     * increments its version, so a write that also changed views would still pass.
+     */
+    static final Bson NOT_VIEWS_ONLY = Filters.or(
+            Filters.exists("updateDescription.updatedFields.views", false),
+            Filters.exists("updateDescription.updatedFields.version"));
+
+    private final MongoTemplate mongoTemplate;
+
+    private final VideoMapper videoMapper;
+
+    private final CategoryMapper categoryMapper;
+
+    private final ObjectMapper objectMapper;
+
+    private final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+
+    private final ThreadPoolTaskExecutor senders = new ThreadPoolTaskExecutor();
+
+    private final List<ChangeFeedSubscriber> subscribers = new CopyOnWriteArrayList<>();
+
+    /**
+     * The streams, their positions, the last events and the id of the last one; guarded by {@code this}.
+     */
+    private final Map<String, MongoChangeStreamCursor<ChangeStreamDocument<Document>>> cursors = new LinkedHashMap<>();
+
+    private final Map<String, BsonDocument> positions = new HashMap<>();
+
+    private final Deque<Event> buffer = new ArrayDeque<>();
+
+    private String lastId;
+
+    @Value("${change-feed.max-subscribers:50}")
+    private int maxSubscribers;
+
+    @Value("${change-feed.max-await-ms:500}")
+    private long maxAwaitMs;
+
+    @Value("${change-feed.heartbeat-ms:15000}")
+    private long heartbeatMs;
+
+    @Value("${change-feed.buffer-size:1000}")
+    private int bufferSize;
+
+    @Value("${change-feed.max-pending-events:100}")
+    private int maxPendingEvents;
+
+    @Value("${change-feed.idle-close-ms:60000}")
+    private long idleCloseMs;
+
+    @PostConstruct
+    void start() {
+        // a single tailing thread; a tail started after a reset waits for the previous one to end
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setThreadNamePrefix("change-feed-");
+        executor.initialize();
+        // a sender per subscriber at most, as each sends one event at a time
+        senders.setCorePoolSize(maxSubscribers);
+        senders.setMaxPoolSize(maxSubscribers);
+        senders.setAllowCoreThreadTimeOut(true);
+        senders.setThreadNamePrefix("change-feed-send-");
+        senders.initialize();
+    }
+
+    @PreDestroy
+    void stop() {
+        executor.shutdown();
+        senders.shutdown();
+    }
+
+    /**
+     * Opens the change streams, if no subscriber did yet, before answering, so an unknown or expired
+     * resume token fails the request rather than the event stream. Without a token the feed starts
+     * from now.
+     */
+    public SseEmitter subscribe(String resumeToken) {
+        Map<String, BsonDocument> from = decodeToken(resumeToken);
+        SseEmitter emitter = new SseEmitter();
+        ChangeFeedSubscriber subscriber = new ChangeFeedSubscriber(emitter, maxPendingEvents, senders);
+        synchronized (this) {
+            if (subscribers.size() >= maxSubscribers) {
+                throw new SubscriberLimitException();
+            }
+            if (cursors.isEmpty()) {
+                open(from);
+            }
+            List<Event> missed = missedSince(from);
+            String readyId = from.isEmpty() ? lastId : resumeToken;
+            // queued under the lock, so no event published meanwhile comes before the replay
+            subscriber.enqueue(SseEmitter.event().name("ready").id(readyId).data(readyId));
+            missed.forEach(event -> subscriber.enqueue(event.toSse()));
+            Runnable remove = () -> {
+                subscriber.close();
+                subscribers.remove(subscriber);
+            };
+            emitter.onCompletion(remove);
+            emitter.onTimeout(remove);
+            emitter.onError(e -> remove.run());
+            subscribers.add(subscriber);
+        }
+        subscriber.flush();
+        return emitter;
+    }
+
+    /**
+     * Starts the streams at {@code from}, the position of the first subscriber, or at now.
+     */
+    private void open(Map<String, BsonDocument> from) {
+        try {
+            for (String collection : COLLECTIONS) {
+                MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor = open(collection, from.get(collection));
+                cursors.put(collection, cursor);
+                // the post batch resume token, so a quiet collection still has a position to resume from
+                BsonDocument position = from.containsKey(collection) ? from.get(collection) : cursor.getResumeToken();
+                if (position != null) {
+                    positions.put(collection, position);
+                }
+            }
+        } catch (MongoException e) {
+            close();
+            if (HISTORY_LOST.contains(e.getCode())) {
+                throw new ResumeTokenExpiredException();
+            }
+            throw e;
+        }
+        lastId = encodeToken(positions);
+        executor.execute(this::tail);
+    }
+
+    /**
+     * The buffered events of each collection after its position in {@code from}, in stream order.
+     */
+    private List<Event> missedSince(Map<String, BsonDocument> from) {
+        if (from.isEmpty()) {
+            return List.of();
+        }
+        Map<String, Integer> firstMissed = new HashMap<>();
+        for (String collection : COLLECTIONS) {
+            BsonDocument position = from.get(collection);
+            if (position == null || position.equals(positions.get(collection))) {
+                firstMissed.put(collection, buffer.size());
+                continue;
+            }
+            int index = 0;
+            int found = -1;
+            for (Event event : buffer) {
+                if (event.collection.equals(collection) && event.position.equals(position)) {
+                    found = index;
+                }
+                index++;
+            }
+            if (found < 0) {
+                throw new ResumeTokenExpiredException();
+            }
+            firstMissed.put(collection, found + 1);
+        }
+        List<Event> missed = new ArrayList<>();
+        int index = 0;
+        for (Event event : buffer) {
+            if (index++ >= firstMissed.get(event.collection)) {
+                missed.add(event);
+            }
+        }
+        return missed;
+    }
+
+    /**
+     * Runs on the feed thread until the streams end, or have had no subscriber for
+     * {@code idleCloseMs}; only this thread reads the cursors.
+     */
+    private void tail() {
+        Map<String, MongoChangeStreamCursor<ChangeStreamDocument<Document>>> streams;
+        synchronized (this) {
+            streams = new LinkedHashMap<>(cursors);
+        }
+        try {
+            long lastSent = System.nanoTime();
+            long idleSince = lastSent;
+            while (!Thread.currentThread().isInterrupted()) {
+                boolean sent = false;
+                for (Map.Entry<String, MongoChangeStreamCursor<ChangeStreamDocument<Document>>> cursor : streams.entrySet()) {
+                    ChangeStreamDocument<Document> change = cursor.getValue().tryNext();
+                    if (change == null) {
+                        continue;
+                    }
+                    if (!OPERATIONS.contains(change.getOperationType())) {
+                        String operation = change.getOperationType().getValue();
+                        end(emitter -> {
+                            emitter.send(SseEmitter.event().name("reset").data(operation));
+                            emitter.complete();
+                        });
+                        return;
+                    }
+                    publish(cursor.getKey(), change);
+                    sent = true;
+                }
+                if (sent) {
+                    lastSent = System.nanoTime();
+                } else if (System.nanoTime() - lastSent > TimeUnit.MILLISECONDS.toNanos(heartbeatMs)) {
+                    // detects subscribers that went away while nothing changed
+                    sendAll(() -> SseEmitter.event().comment("heartbeat"));
+                    lastSent = System.nanoTime();
+                }
+                if (!subscribers.isEmpty()) {
+                    idleSince = System.nanoTime();
+                } else if (System.nanoTime() - idleSince > TimeUnit.MILLISECONDS.toNanos(idleCloseMs) && closeIfIdle()) {
+                    return;
+                }
+            }
+            end(SseEmitter::complete);
+        } catch (RuntimeException e) {
+            log.warn("Change feed failed", e);
+            end(emitter -> emitter.completeWithError(e));
+        }
+    }
+
+    /**
+     * Closes the streams unless a subscriber came meanwhile; the next one opens them again, resuming
+     * from its token in the oplog.
+     */
+    private synchronized boolean closeIfIdle() {
+        if (!subscribers.isEmpty()) {
+            return false;
+        }
+        log.debug("Change feed closed after {} ms without subscribers", idleCloseMs);
+        close();
+        return true;
+    }
+
+    /**
+     * Maps and serializes the change once, outside the lock, then queues it to every subscriber.
+     */
+    private void publish(String collection, ChangeStreamDocument<Document> change) {
+        String data = toJson(toEvent(collection, change));
+        synchronized (this) {
+            positions.put(collection, change.getResumeToken());
+            Event event = new Event(collection, change.getResumeToken(), encodeToken(positions), data);
+            buffer.addLast(event);
+            if (buffer.size() > bufferSize) {
+                buffer.removeFirst();
+            }
+            lastId = event.id;
+            sendAll(event::toSse);
+        }
+    }
+
+    /**
+     * Never waits on a subscriber; drops those that are gone or too far behind.
+     */
+    private void sendAll(Supplier<SseEmitter.SseEventBuilder> event) {
+        subscribers.removeIf(subscriber -> !subscriber.offer(event.get()));
+    }
+
+    /**
+     * Ends every subscription, after the events queued to it, and closes the streams; the next
+     * subscriber opens them again.
+     */
+    private synchronized void end(ChangeFeedSubscriber.End end) {
+        subscribers.forEach(subscriber -> subscriber.end(end));
+        subscribers.clear();
+        close();
+    }
+
+    private void close() {
+        cursors.values().forEach(MongoChangeStreamCursor::close);
+        cursors.clear();
+        positions.clear();
+        buffer.clear();
+    }
+
+    @RequiredArgsConstructor
+    private static class Event {
+
+        private final String collection;
+
+        private final BsonDocument position;
+
+        private final String id;
+
+        private final String data;
+
+        /**
+         * A builder can only be sent once, so every subscriber gets its own.
+         */
+        SseEmitter.SseEventBuilder toSse() {
+            return SseEmitter.event().name(collection).id(id).data(data, MediaType.APPLICATION_JSON);
+        }
+    }
+
+    private MongoChangeStreamCursor<ChangeStreamDocument<Document>> open(String collection, BsonDocument resumeToken) {
+        ChangeStreamIterable<Document> stream = mongoTemplate.getCollection(collection).watch(List.of(Aggregates.match(NOT_VIEWS_ONLY)))
+                .fullDocument(FullDocument.UPDATE_LOOKUP)
+                .maxAwaitTime(maxAwaitMs, TimeUnit.MILLISECONDS);
+        if (resumeToken != null) {
+            stream = stream.resumeAfter(resumeToken);
+        }
+        return stream.cursor();
+    }
+
+    private ChangeEventDTO toEvent(String collection, ChangeStreamDocument<Document> change) {
+        Document document = change.getFullDocument();
+        return ChangeEventDTO.builder()
+                .collection(collection)
+                .operation(change.getOperationType().getValue())
+                .id(id(change.getDocumentKey().get("_id")))
+                .document(document != null ? toResponse(collection, document) : null)
+                .build();
+    }
+
+    private String toJson(ChangeEventDTO event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private Object toResponse(String collection, Document document) {
+        if (Video.COLLECTION.equals(collection)) {
+            return videoMapper.toResponse(mongoTemplate.getConverter().read(Video.class, document));
+        }
+        return categoryMapper.toResponse(mongoTemplate.getConverter().read(Category.class, document));
+    }
+
+    private static String id(BsonValue id) {
+        return id.isObjectId() ? id.asObjectId().getValue().toHexString() : id.asString().getValue();
+    }
+
+    private static String encodeToken(Map<String, BsonDocument> positions) {
+        BsonDocument token = new BsonDocument();
+        positions.forEach(token::append);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(token.toJson().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Map<String, BsonDocument> decodeToken(String token) {
+        if (!StringUtils.hasText(token)) {
+            return Map.of();
+        }
+        try {
+            BsonDocument document = BsonDocument.parse(new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8));
+            Map<String, BsonDocument> positions = new HashMap<>();
+            for (String collection : COLLECTIONS) {
+                if (document.containsKey(collection)) {
+                    positions.put(collection, document.getDocument(collection));
+                }
+            }
+            return positions;
+        } catch (IllegalArgumentException | JsonParseException | BsonInvalidOperationException e) {
+            throw new InvalidResumeTokenException();
+        }
+    }
+}
@@ -1,15 +1,25 @@
 package com.movieflix.service;
 
 import com.movieflix.domain.Category;
+import com.movieflix.domain.Video;
 import com.movieflix.domain.dto.CategoryRequestDTO;
 import com.movieflix.domain.dto.CategoryResponseDTO;
+import com.movieflix.domain.dto.CategorySummaryDTO;
+import com.movieflix.domain.dto.Versioned;
 import com.movieflix.exception.DataNotFoundException;
+import com.movieflix.exception.VersionConflictException;
+import com.movieflix.mapper.CategoryMapper;
+import com.movieflix.metrics.RequestBreakdown;
 import com.movieflix.repository.CategoryRepository;
+import com.movieflix.repository.CategoryVideoCountRepository;
+import com.movieflix.repository.ChangeCounterRepository;
+import com.movieflix.repository.VersionView;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
-import org.modelmapper.ModelMapper;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -18,34 +28,120 @@ public class CategoryService {
 
     private final CategoryRepository categoryRepository;
 
-    private final ModelMapper modelMapper;
+    private final CategoryMapper categoryMapper;
 
-    public List<CategoryResponseDTO> findAll() {
-        return categoryRepository.findAll().stream()
-                .map(category -> modelMapper.map(category, CategoryResponseDTO.class))
-                .collect(Collectors.toList());
+    private final VideoCategoryPropagator videoCategoryPropagator;
+
+    private final ChangeCounterRepository changeCounterRepository;
+
+    private final CategoryVideoCountRepository categoryVideoCountRepository;
+
+    private final ReadCoalescer readCoalescer;
+
+    /**
+     * @param collectionVersion the {@link #getCollectionVersion()} the listing is served at
+     */
+    @Timed("movieflix.service")
+    public List<CategoryResponseDTO> findAll(long collectionVersion) {
+        List<Category> categories = categoryRepository.findAll(collectionVersion);
+        return RequestBreakdown.timeMapping(() -> categories.stream()
+                .map(categoryMapper::toResponse)
+                .collect(Collectors.toList()));
     }
 
+    /**
+     * Every category with its number of videos, read from the precomputed counts.
+     */
+    @Timed("movieflix.service")
+    public List<CategorySummaryDTO> findSummary() {
+        Map<String, Long> counts = categoryVideoCountRepository.findAll();
+        List<Category> categories = categoryRepository.findAll(getCollectionVersion());
+        return RequestBreakdown.timeMapping(() -> categories.stream()
+                .map(category -> categoryMapper.toSummary(category, counts.getOrDefault(category.getId(), 0L)))
+                .collect(Collectors.toList()));
+    }
+
+    @Timed("movieflix.service")
     public CategoryResponseDTO create(CategoryRequestDTO categoryRequest) {
-        Category category = modelMapper.map(categoryRequest, Category.class);
-        category = categoryRepository.save(category);
-        return modelMapper.map(category, CategoryResponseDTO.class);
+        Category category = categoryMapper.toEntity(categoryRequest);
+        Category created = categoryRepository.save(category);
+        return RequestBreakdown.timeMapping(() -> categoryMapper.toResponse(created));
+    }
+
+    /**
+     * Version of a single category, read from Mongo without loading the document, so it reflects
+     * writes made by every instance.
+     */
+    @Timed("movieflix.service")
+    public long getVersion(String id) {
+        return categoryRepository.findVersionById(id)
+                .map(view -> VersionView.orZero(view.getVersion()))
+                .orElseThrow(DataNotFoundException::new);
+    }
+
+    /**
+     * Changes whenever any category is written, so it versions the category listing.
+     */
+    @Timed("movieflix.service")
+    public long getCollectionVersion() {
+        return changeCounterRepository.get(Category.COLLECTION);
+    }
+
+    /**
+     * Changes whenever a category or a video is written or a count is reconciled, so it versions
+     * the category summary.
+     */
+    @Timed("movieflix.service")
+    public long getSummaryVersion() {
+        return changeCounterRepository.sum(Category.COLLECTION, Video.COLLECTION, CategoryVideoCountRepository.COLLECTION);
+    }
+
+    /**
+     * The category at {@code version} or newer, with the version it was read at. A cached copy older
+     * than that, left by a write on another instance, is replaced by a read from Mongo. Concurrent
+     * reads of the same category and version share one lookup, see {@link ReadCoalescer}.
+     */
+    @Timed("movieflix.service")
+    public Versioned<CategoryResponseDTO> findById(String id, long version) {
+        return readCoalescer.coalesce(ReadCoalescer.CATEGORY, List.of(id, version), () -> {
+            Category category = categoryRepository.findById(id)
+                    .filter(cached -> VersionView.orZero(cached.getVersion()) >= version)
+                    .or(() -> categoryRepository.findCurrentById(id))
+                    .orElseThrow(DataNotFoundException::new);
+            CategoryResponseDTO response = RequestBreakdown.timeMapping(() -> categoryMapper.toResponse(category));
+            return Versioned.of(VersionView.orZero(category.getVersion()), response);
+        });
     }
 
-    public CategoryResponseDTO findById(String id) {
-        Category category = categoryRepository.findById(id).orElseThrow(DataNotFoundException::new);
-        return modelMapper.map(category, CategoryResponseDTO.class);
+    /**
+     * Updates the category in one round trip. With a non-null {@code expectedVersion} the update
+     * is rejected if the category changed since.
+     */
+    @Timed("movieflix.service")
+    public CategoryResponseDTO update(String id, CategoryRequestDTO categoryRequest, Long expectedVersion) {
+        Category category = categoryMapper.toEntity(categoryRequest);
+        category.setId(id);
+        Category updated = categoryRepository.update(category, expectedVersion).orElseThrow(() -> missingOrConflict(id, expectedVersion));
+        videoCategoryPropagator.propagate(id);
+        return RequestBreakdown.timeMapping(() -> categoryMapper.toResponse(updated));
     }
 
-    public CategoryResponseDTO update(String id, CategoryRequestDTO videoRequest) {
-        Category category = categoryRepository.findById(id).orElseThrow(DataNotFoundException::new);
-        modelMapper.map(videoRequest, category);
-        categoryRepository.save(category);
-        return modelMapper.map(category, CategoryResponseDTO.class);
+    @Timed("movieflix.service")
+    public void delete(String id, Long expectedVersion) {
+        if (!categoryRepository.deleteById(id, expectedVersion)) {
+            throw missingOrConflict(id, expectedVersion);
+        }
+        categoryVideoCountRepository.delete(id);
+        videoCategoryPropagator.propagate(id);
     }
 
-    public void delete(String id) {
-        categoryRepository.findById(id).orElseThrow(DataNotFoundException::new);
-        categoryRepository.deleteById(id);
+    /**
+     * Tells apart why a conditional write matched nothing. Only runs on the failure path.
+     */
+    private RuntimeException missingOrConflict(String id, Long expectedVersion) {
+        if (expectedVersion != null && categoryRepository.existsById(id)) {
+            return new VersionConflictException();
+        }
+        return new DataNotFoundException();
     }
 }
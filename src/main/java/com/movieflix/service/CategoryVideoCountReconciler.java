@@ -0,0 +1,77 @@
+package com.movieflix.service;
+
+import com.movieflix.repository.CategoryVideoCountRepository;
+import com.movieflix.repository.ChangeCounterRepository;
+import com.movieflix.repository.LeaseRepository;
+import com.movieflix.repository.VideoRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Recounts the videos of every category and corrects the stored counts that drifted: writes
+ * that failed halfway, the reactive stack, which does not maintain them, or videos that existed
+ * before the counts did. Runs once at startup and then every
+ * {@code category-summary.reconcile.interval-ms}, on whichever instance holds the reconcile
+ * lease for that interval, so the aggregation runs once per interval however many instances
+ * there are.
+ *
+ * <p>Corrections are applied as {@code $inc} deltas, so a video written after the stored counts
+ * were read keeps its increment. One written between the aggregation and that read can leave a
+ * count off by one until the next run.
+ */
+@Slf4j
+@Component
+@Profile("!reactive")
+@RequiredArgsConstructor
+@ConditionalOnProperty(value = "category-summary.reconcile.enabled", havingValue = "true", matchIfMissing = true)
+public class CategoryVideoCountReconciler {
+
+    static final String LEASE = "categoryVideoCountReconciler";
+
+    private final VideoRepository videoRepository;
+
+    private final CategoryVideoCountRepository categoryVideoCountRepository;
+
+    private final ChangeCounterRepository changeCounterRepository;
+
+    private final LeaseRepository leaseRepository;
+
+    @Value("${category-summary.reconcile.interval-ms:600000}")
+    private long intervalMs;
+
+    @Scheduled(fixedDelayString = "${category-summary.reconcile.interval-ms:600000}")
+    public void reconcile() {
+        if (!leaseRepository.tryAcquire(LEASE, Duration.ofMillis(intervalMs))) {
+            return;
+        }
+        Map<String, Long> actual = videoRepository.countByCategory();
+        Map<String, Long> stored = categoryVideoCountRepository.findAll();
+
+        Map<String, Long> deltas = new HashMap<>();
+        Set<String> categoryIds = new HashSet<>(actual.keySet());
+        categoryIds.addAll(stored.keySet());
+        categoryIds.forEach(categoryId -> {
+            long delta = actual.getOrDefault(categoryId, 0L) - stored.getOrDefault(categoryId, 0L);
+            if (delta != 0) {
+                deltas.put(categoryId, delta);
+            }
+        });
+        if (deltas.isEmpty()) {
+            return;
+        }
+        categoryVideoCountRepository.incrementAll(deltas);
+        changeCounterRepository.increment(CategoryVideoCountRepository.COLLECTION);
+        log.info("Reconciled the video count of {} categories", deltas.size());
+    }
+}
@@ -0,0 +1,137 @@
+package com.movieflix.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A subscriber of the {@link CatalogChangeFeed} with its own queue of events, written to the
+ * response by one sender task at a time, so a consumer that reads slowly only holds up itself.
+ * One that falls {@code maxPending} events behind is dropped: its stream ends and the client
+ * resumes from the last event it got, or syncs again from the listings once that is no longer
+ * buffered.
+ */
+@Slf4j
+class ChangeFeedSubscriber {
+
+    private final SseEmitter emitter;
+
+    private final int maxPending;
+
+    private final Executor sender;
+
+    private final BlockingQueue<SseEmitter.SseEventBuilder> queue = new LinkedBlockingQueue<>();
+
+    private final AtomicBoolean sending = new AtomicBoolean();
+
+    private final AtomicReference<End> end = new AtomicReference<>();
+
+    private volatile boolean ended;
+
+    ChangeFeedSubscriber(SseEmitter emitter, int maxPending, Executor sender) {
+        this.emitter = emitter;
+        this.maxPending = maxPending;
+        this.sender = sender;
+    }
+
+    /**
+     * Queues an event however far behind the subscriber is, for the replay of a new subscriber.
+     * Nothing is sent until {@link #flush()}.
+     */
+    void enqueue(SseEmitter.SseEventBuilder event) {
+        queue.add(event);
+    }
+
+    /**
+     * Queues an event and has it sent, without waiting for the subscriber.
+     *
+     * @return false if the subscriber is gone, or is now dropped for being too far behind
+     */
+    boolean offer(SseEmitter.SseEventBuilder event) {
+        if (ended || end.get() != null) {
+            return false;
+        }
+        if (queue.size() >= maxPending) {
+            log.debug("Change feed subscriber dropped {} events behind", queue.size());
+            queue.clear();
+            end(SseEmitter::complete);
+            return false;
+        }
+        queue.add(event);
+        flush();
+        return true;
+    }
+
+    /**
+     * Ends the subscription with {@code end} once the queued events are sent.
+     */
+    void end(End end) {
+        if (this.end.compareAndSet(null, end)) {
+            flush();
+        }
+    }
+
+    void flush() {
+        if (sending.compareAndSet(false, true)) {
+            sender.execute(this::send);
+        }
+    }
+
+    /**
+     * Stops the sends once the container is done with the response. Runs in its completion, timeout
+     * and error callbacks, so after a write in progress: Tomcat records a failed write on the
+     * response only after dispatching the error, and would otherwise fail whichever request gets the
+     * recycled response next.
+     */
+    synchronized void close() {
+        ended = true;
+        queue.clear();
+    }
+
+    private void send() {
+        try {
+            for (SseEmitter.SseEventBuilder event = queue.poll(); event != null && !ended; event = queue.poll()) {
+                write(event);
+            }
+            End last = end.get();
+            if (last != null) {
+                finish(last);
+            }
+        } catch (IOException | IllegalStateException e) {
+            // the emitter completes itself with the error
+            log.debug("Change feed subscriber disconnected", e);
+            ended = true;
+            queue.clear();
+        } finally {
+            sending.set(false);
+        }
+        if (!ended && (!queue.isEmpty() || end.get() != null)) {
+            flush();
+        }
+    }
+
+    private synchronized void write(SseEmitter.SseEventBuilder event) throws IOException {
+        if (!ended) {
+            emitter.send(event);
+        }
+    }
+
+    private synchronized void finish(End last) throws IOException {
+        if (!ended) {
+            ended = true;
+            last.apply(emitter);
+        }
+    }
+
+    @FunctionalInterface
+    interface End {
+
+        void apply(SseEmitter emitter) throws IOException;
+    }
+}
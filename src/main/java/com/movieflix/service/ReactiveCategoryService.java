@@ -0,0 +1,86 @@
+package com.movieflix.service;
+
+import com.movieflix.configuration.CacheConfiguration;
+import com.movieflix.domain.Category;
+import com.movieflix.domain.dto.CategoryRequestDTO;
+import com.movieflix.domain.dto.CategoryResponseDTO;
+import com.movieflix.exception.DataNotFoundException;
+import com.movieflix.mapper.CategoryMapper;
+import com.movieflix.repository.ReactiveCategoryRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Optional;
+
+/**
+ * Non-blocking counterpart of {@link CategoryService}, active with the {@code reactive} profile.
+ */
+@Service
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveCategoryService {
+
+    private final ReactiveCategoryRepository categoryRepository;
+
+    private final CategoryMapper categoryMapper;
+
+    private final VideoCategoryPropagator videoCategoryPropagator;
+
+    private final CacheManager cacheManager;
+
+    public Flux<CategoryResponseDTO> findAll() {
+        return categoryRepository.findAll().map(categoryMapper::toResponse);
+    }
+
+    public Mono<CategoryResponseDTO> create(CategoryRequestDTO categoryRequest) {
+        return categoryRepository.save(categoryMapper.toEntity(categoryRequest))
+                .doOnNext(category -> evictCache(category.getId()))
+                .map(categoryMapper::toResponse);
+    }
+
+    public Mono<CategoryResponseDTO> findById(String id) {
+        return categoryRepository.findById(id)
+                .switchIfEmpty(Mono.error(DataNotFoundException::new))
+                .map(categoryMapper::toResponse);
+    }
+
+    public Mono<CategoryResponseDTO> update(String id, CategoryRequestDTO categoryRequest) {
+        return categoryRepository.findById(id)
+                .switchIfEmpty(Mono.error(DataNotFoundException::new))
+                .flatMap(existing -> {
+                    Category category = categoryMapper.toEntity(categoryRequest);
+                    category.setId(id);
+                    category.setVersion(existing.getVersion());
+                    return categoryRepository.save(category);
+                })
+                .doOnNext(category -> {
+                    evictCache(id);
+                    videoCategoryPropagator.propagate(id);
+                })
+                .map(categoryMapper::toResponse);
+    }
+
+    public Mono<Void> delete(String id) {
+        return categoryRepository.findById(id)
+                .switchIfEmpty(Mono.error(DataNotFoundException::new))
+                .flatMap(category -> categoryRepository.deleteById(id))
+                .then(Mono.fromRunnable(() -> {
+                    evictCache(id);
+                    videoCategoryPropagator.propagate(id);
+                }));
+    }
+
+    /**
+     * The blocking {@code CategoryRepository} cache is still read by the propagator and by video
+     * writes, so reactive writes must invalidate it as well.
+     */
+    private void evictCache(String id) {
+        Optional.ofNullable(cacheManager.getCache(CacheConfiguration.CATEGORIES)).ifPresent(cache -> cache.evict(id));
+        Optional.ofNullable(cacheManager.getCache(CacheConfiguration.CATEGORY_LIST)).ifPresent(Cache::clear);
+    }
+}
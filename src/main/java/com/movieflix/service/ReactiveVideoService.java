@@ -0,0 +1,134 @@
+package com.movieflix.service;
+
+import com.movieflix.domain.Video;
+import com.movieflix.domain.dto.CursorPageDTO;
+import com.movieflix.domain.dto.VideoRequestDTO;
+import com.movieflix.domain.dto.VideoResponseDTO;
+import com.movieflix.exception.CategoryNotFoundException;
+import com.movieflix.exception.DataNotFoundException;
+import com.movieflix.mapper.VideoMapper;
+import com.movieflix.repository.ReactiveCategoryRepository;
+import com.movieflix.repository.ReactiveVideoRepository;
+import com.querydsl.core.types.Predicate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Non-blocking counterpart of {@link VideoService}, active with the {@code reactive} profile.
+ */
+@Service
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveVideoService {
+
+    private final ReactiveVideoRepository videoRepository;
+
+    private final ReactiveCategoryRepository categoryRepository;
+
+    private final VideoMapper videoMapper;
+
+    @Value("${default-category.id}")
+    private String defaultCategoryId;
+
+    @Value("${video-page.max-size}")
+    private int maxPageSize;
+
+    public Mono<Page<VideoResponseDTO>> findAll(String title, Set<String> fields, Pageable page) {
+        Predicate predicate = VideoPredicates.getPredicate(title);
+        Mono<List<VideoResponseDTO>> content = videoRepository.findAll(predicate, fields, page)
+                .map(video -> videoMapper.toResponse(video, fields))
+                .collectList();
+        return Mono.zip(content, videoRepository.count(predicate))
+                .map(result -> new PageImpl<>(result.getT1(), page, result.getT2()));
+    }
+
+    /**
+     * Keyset page, as {@link VideoService#findAll(String, Set, String, int)}.
+     */
+    public Mono<CursorPageDTO<VideoResponseDTO>> findAll(String title, Set<String> fields, String cursor, int size) {
+        int bounded = Math.min(Math.max(size, 1), maxPageSize);
+        return Mono.fromCallable(() -> Optional.ofNullable(VideoCursors.decode(cursor)))
+                .flatMap(afterId -> videoRepository.findAllAfter(VideoPredicates.getPredicate(title), afterId.orElse(null), bounded + 1, fields)
+                        .collectList())
+                .map(videos -> toCursorPage(videos, fields, bounded));
+    }
+
+    private CursorPageDTO<VideoResponseDTO> toCursorPage(List<Video> videos, Set<String> fields, int size) {
+        boolean hasNext = videos.size() > size;
+        List<Video> content = hasNext ? videos.subList(0, size) : videos;
+        return CursorPageDTO.<VideoResponseDTO>builder()
+                .content(content.stream().map(video -> videoMapper.toResponse(video, fields)).collect(Collectors.toList()))
+                .size(content.size())
+                .nextCursor(hasNext ? VideoCursors.encode(content.get(size - 1).getId()) : null)
+                .build();
+    }
+
+    public Mono<Page<VideoResponseDTO>> search(String text, Set<String> fields, Pageable page) {
+        Mono<List<VideoResponseDTO>> content = videoRepository.search(text, fields, page)
+                .map(video -> videoMapper.toResponse(video, fields))
+                .collectList();
+        return Mono.zip(content, videoRepository.countSearch(text))
+                .map(result -> new PageImpl<>(result.getT1(), page, result.getT2()));
+    }
+
+    public Mono<VideoResponseDTO> create(VideoRequestDTO videoRequest) {
+        Video video = videoMapper.toEntity(videoRequest);
+        return fillCategory(video, videoRequest.getCategoryId())
+                .flatMap(videoRepository::save)
+                .map(videoMapper::toResponse);
+    }
+
+    public Mono<VideoResponseDTO> findById(String id, Set<String> fields) {
+        return videoRepository.findById(id, fields)
+                .switchIfEmpty(Mono.error(DataNotFoundException::new))
+                .map(video -> videoMapper.toResponse(video, fields));
+    }
+
+    public Mono<VideoResponseDTO> update(String id, VideoRequestDTO videoRequest) {
+        return videoRepository.findById(id)
+                .switchIfEmpty(Mono.error(DataNotFoundException::new))
+                .flatMap(video -> {
+                    videoMapper.update(videoRequest, video);
+                    return fillCategory(video, videoRequest.getCategoryId());
+                })
+                .flatMap(videoRepository::save)
+                .map(videoMapper::toResponse);
+    }
+
+    public Mono<Void> delete(String id) {
+        return videoRepository.findById(id)
+                .switchIfEmpty(Mono.error(DataNotFoundException::new))
+                .flatMap(video -> videoRepository.deleteById(id));
+    }
+
+    public Mono<Page<VideoResponseDTO>> findAllByCategory(String categoryId, Set<String> fields, Pageable page) {
+        Pageable bounded = page.getPageSize() > maxPageSize ? PageRequest.of(page.getPageNumber(), maxPageSize, page.getSort()) : page;
+        Mono<List<VideoResponseDTO>> content = videoRepository.findByCategoryId(categoryId, fields, bounded)
+                .map(video -> videoMapper.toResponse(video, fields))
+                .collectList();
+        return Mono.zip(content, videoRepository.countByCategoryId(categoryId))
+                .map(result -> new PageImpl<>(result.getT1(), bounded, result.getT2()));
+    }
+
+    private Mono<Video> fillCategory(Video video, String requestCategoryId) {
+        String categoryId = requestCategoryId != null ? requestCategoryId : defaultCategoryId;
+        return categoryRepository.findById(categoryId)
+                .switchIfEmpty(Mono.error(CategoryNotFoundException::new))
+                .map(category -> {
+                    video.setCategory(category);
+                    return video;
+                });
+    }
+}
@@ -0,0 +1,100 @@
+package com.movieflix.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight for hot reads: while a read of a key is in flight, concurrent callers asking for the
+ * same key wait for it and share its result, or its exception, instead of querying Mongo and mapping
+ * again. Nothing is kept once the read completes, but a follower can still get the result of a read
+ * that started before its own call, and so miss a write that completed in between. Readers that must
+ * see their own writes either put the version they read first in the key, so they only share a read
+ * of that version or newer, or have the writes {@link #forget} the reads in flight. Only the reads
+ * listed in {@code read-coalescing.scope} are coalesced.
+ * <p>
+ * {@value #METRIC} counts the reads by name and role: the leader queries, followers share its result,
+ * so {@code follower / (leader + follower)} is the coalescing ratio.
+ */
+@Component
+public class ReadCoalescer {
+
+    public static final String METRIC = "movieflix.coalescing.reads";
+
+    public static final String VIDEO = "video";
+
+    public static final String VIDEO_BODY = "video-body";
+
+    public static final String CATEGORY = "category";
+
+    private final MeterRegistry meterRegistry;
+
+    private final Set<String> scope;
+
+    private final Map<String, Map<Object, CompletableFuture<Object>>> inFlight = new ConcurrentHashMap<>();
+
+    public ReadCoalescer(MeterRegistry meterRegistry, @Value("${read-coalescing.scope:}") Set<String> scope) {
+        this.meterRegistry = meterRegistry;
+        this.scope = scope;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T coalesce(String name, Object key, Supplier<T> read) {
+        if (!scope.contains(name)) {
+            return read.get();
+        }
+        Map<Object, CompletableFuture<Object>> calls = inFlight.computeIfAbsent(name, n -> new ConcurrentHashMap<>());
+        CompletableFuture<Object> call = new CompletableFuture<>();
+        CompletableFuture<Object> leader = calls.putIfAbsent(key, call);
+        if (leader != null) {
+            counter(name, "follower").increment();
+            return (T) join(leader);
+        }
+        counter(name, "leader").increment();
+        try {
+            T result = read.get();
+            call.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            call.completeExceptionally(e);
+            throw e;
+        } finally {
+            calls.remove(key, call);
+        }
+    }
+
+    /**
+     * Stops sharing the reads in flight whose key matches {@code keys}: later callers read again,
+     * those already waiting still get the result.
+     */
+    public void forget(String name, Predicate<Object> keys) {
+        Map<Object, CompletableFuture<Object>> calls = inFlight.get(name);
+        if (calls != null) {
+            calls.keySet().removeIf(keys);
+        }
+    }
+
+    private Counter counter(String name, String role) {
+        return meterRegistry.counter(METRIC, "name", name, "role", role);
+    }
+
+    private static Object join(CompletableFuture<Object> call) {
+        try {
+            return call.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw (Error) e.getCause();
+        }
+    }
+}
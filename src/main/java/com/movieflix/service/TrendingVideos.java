@@ -0,0 +1,171 @@
+package com.movieflix.service;
+
+import com.movieflix.domain.Video;
+import com.movieflix.domain.dto.TrendingVideoDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * The most viewed videos of the last {@code video-views.trending.buckets} buckets of
+ * {@code video-views.trending.bucket-ms}, overall and per category. The window slides one bucket at
+ * a time, subtracting the views of the bucket that expires. Only the views this instance received
+ * are ranked.
+ * <p>
+ * Written by the flushes of {@link VideoViewService}, each of which publishes a new immutable
+ * ranking, so reads never wait for a write.
+ */
+@Component
+public class TrendingVideos {
+
+    private static final Comparator<TrendingVideoDTO> BY_VIEWS =
+            Comparator.comparingLong(TrendingVideoDTO::getViews).thenComparing(TrendingVideoDTO::getId, Comparator.reverseOrder());
+
+    private final int buckets;
+
+    private final long bucketMs;
+
+    private final int size;
+
+    /**
+     * Views of each video per bucket, newest first.
+     */
+    private final Deque<Map<String, Long>> window = new ArrayDeque<>();
+
+    private final Map<String, Long> totals = new HashMap<>();
+
+    private final Map<String, Video> videos = new HashMap<>();
+
+    private long newestBucket;
+
+    private volatile Ranking ranking = new Ranking(List.of(), Map.of());
+
+    public TrendingVideos(@Value("${video-views.trending.buckets}") int buckets,
+                          @Value("${video-views.trending.bucket-ms}") long bucketMs,
+                          @Value("${video-views.trending.size}") int size) {
+        this.buckets = buckets;
+        this.bucketMs = bucketMs;
+        this.size = size;
+    }
+
+    /**
+     * Adds the views of the {@code viewed} videos, counted at {@code now}, after sliding the window
+     * to it. Views of videos missing from {@code viewed} are ignored.
+     */
+    public synchronized void add(long now, Map<String, Long> views, Collection<Video> viewed) {
+        boolean changed = slide(now);
+        Map<String, Long> bucket = window.getFirst();
+        for (Video video : viewed) {
+            Long count = views.get(video.getId());
+            if (count != null) {
+                bucket.merge(video.getId(), count, Long::sum);
+                totals.merge(video.getId(), count, Long::sum);
+                videos.put(video.getId(), video);
+                changed = true;
+            }
+        }
+        if (changed) {
+            rank();
+        }
+    }
+
+    public synchronized void remove(String id) {
+        window.forEach(bucket -> bucket.remove(id));
+        videos.remove(id);
+        if (totals.remove(id) != null) {
+            rank();
+        }
+    }
+
+    /**
+     * @param categoryId ranks the videos of this category only, or every video when {@code null}
+     */
+    public List<TrendingVideoDTO> top(String categoryId, int limit) {
+        Ranking current = ranking;
+        List<TrendingVideoDTO> top = categoryId != null ? current.byCategory.getOrDefault(categoryId, List.of()) : current.overall;
+        return top.subList(0, Math.max(0, Math.min(limit, top.size())));
+    }
+
+    /**
+     * @return whether views expired
+     */
+    private boolean slide(long now) {
+        long bucket = now / bucketMs;
+        if (!window.isEmpty() && bucket <= newestBucket) {
+            return false;
+        }
+        long added = window.isEmpty() ? buckets : Math.min(bucket - newestBucket, buckets);
+        for (long i = 0; i < added; i++) {
+            window.addFirst(new HashMap<>());
+        }
+        newestBucket = bucket;
+        boolean expired = false;
+        while (window.size() > buckets) {
+            Map<String, Long> oldest = window.removeLast();
+            oldest.forEach((id, count) -> {
+                if (totals.computeIfPresent(id, (key, total) -> total > count ? total - count : null) == null) {
+                    videos.remove(id);
+                }
+            });
+            expired |= !oldest.isEmpty();
+        }
+        return expired;
+    }
+
+    private void rank() {
+        Map<String, PriorityQueue<TrendingVideoDTO>> byCategory = new HashMap<>();
+        PriorityQueue<TrendingVideoDTO> overall = new PriorityQueue<>(BY_VIEWS);
+        totals.forEach((id, views) -> {
+            Video video = videos.get(id);
+            TrendingVideoDTO trending = TrendingVideoDTO.builder()
+                    .id(id)
+                    .title(video.getTitle())
+                    .categoryId(video.getCategory() != null ? video.getCategory().getId() : null)
+                    .views(views)
+                    .build();
+            offer(overall, trending);
+            if (trending.getCategoryId() != null) {
+                offer(byCategory.computeIfAbsent(trending.getCategoryId(), categoryId -> new PriorityQueue<>(BY_VIEWS)), trending);
+            }
+        });
+        Map<String, List<TrendingVideoDTO>> ranked = new HashMap<>();
+        byCategory.forEach((categoryId, top) -> ranked.put(categoryId, sorted(top)));
+        ranking = new Ranking(sorted(overall), ranked);
+    }
+
+    /**
+     * Keeps the {@code size} most viewed videos, the least viewed of them at the head.
+     */
+    private void offer(PriorityQueue<TrendingVideoDTO> top, TrendingVideoDTO video) {
+        if (top.size() < size) {
+            top.add(video);
+        } else if (BY_VIEWS.compare(video, top.peek()) > 0) {
+            top.poll();
+            top.add(video);
+        }
+    }
+
+    private static List<TrendingVideoDTO> sorted(PriorityQueue<TrendingVideoDTO> top) {
+        List<TrendingVideoDTO> sorted = new ArrayList<>(top);
+        sorted.sort(BY_VIEWS.reversed());
+        return List.copyOf(sorted);
+    }
+
+    @RequiredArgsConstructor
+    private static class Ranking {
+
+        private final List<TrendingVideoDTO> overall;
+
+        private final Map<String, List<TrendingVideoDTO>> byCategory;
+    }
+}
@@ -0,0 +1,199 @@
+package com.movieflix.service;
+
+import com.mongodb.bulk.BulkWriteError;
+import com.movieflix.domain.Category;
+import com.movieflix.domain.Video;
+import com.movieflix.domain.dto.VideoBatchResultDTO;
+import com.movieflix.domain.dto.VideoRequestDTO;
+import com.movieflix.mapper.VideoMapper;
+import com.movieflix.repository.CategoryRepository;
+import com.movieflix.repository.CategoryVideoCountRepository;
+import com.movieflix.repository.VideoRepository;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.stereotype.Service;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+/**
+ * Bulk counterpart of {@link VideoService#create}. Requests are consumed in chunks of
+ * {@code video-batch.chunk-size}: each chunk resolves its categories with one query and is written
+ * with one unordered bulk insert. Every request gets its own result, so one bad item never fails
+ * the batch, not even one that could not be read.
+ */
+@Service
+@RequiredArgsConstructor
+public class VideoBatchService {
+
+    private final VideoRepository videoRepository;
+
+    private final CategoryRepository categoryRepository;
+
+    private final VideoMapper videoMapper;
+
+    private final Validator validator;
+
+    private final CategoryVideoCountRepository categoryVideoCountRepository;
+
+    @Value("${default-category.id}")
+    private String defaultCategoryId;
+
+    @Value("${video-batch.chunk-size:1000}")
+    private int chunkSize;
+
+    public List<VideoBatchResultDTO> create(Iterator<VideoRequestDTO> videoRequests) {
+        return createItems(new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return videoRequests.hasNext();
+            }
+
+            @Override
+            public Item next() {
+                return Item.of(videoRequests.next());
+            }
+        });
+    }
+
+    /**
+     * Reports the unreadable items as {@code INVALID} and creates the others.
+     */
+    public List<VideoBatchResultDTO> createItems(Iterator<Item> items) {
+        List<VideoBatchResultDTO> results = new ArrayList<>();
+        List<Item> chunk = new ArrayList<>(chunkSize);
+        while (items.hasNext()) {
+            chunk.add(items.next());
+            if (chunk.size() == chunkSize) {
+                results.addAll(createChunk(chunk, results.size()));
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            results.addAll(createChunk(chunk, results.size()));
+        }
+        return results;
+    }
+
+    private List<VideoBatchResultDTO> createChunk(List<Item> items, int offset) {
+        VideoBatchResultDTO[] results = new VideoBatchResultDTO[items.size()];
+        Map<String, Category> categories = findCategories(items);
+        List<Video> videos = new ArrayList<>();
+        List<Integer> positions = new ArrayList<>();
+
+        for (int i = 0; i < items.size(); i++) {
+            VideoRequestDTO videoRequest = items.get(i).getRequest();
+            Map<String, String> errors = validate(items.get(i));
+            Category category = videoRequest != null ? categories.get(getCategoryId(videoRequest)) : null;
+            if (errors.isEmpty() && category == null) {
+                errors.put("categoryId", "Category not found");
+            }
+            if (!errors.isEmpty()) {
+                results[i] = result(offset + i, VideoBatchResultDTO.Status.INVALID, null, errors);
+                continue;
+            }
+
+            Video video = videoMapper.toEntity(videoRequest);
+            video.setId(new ObjectId().toHexString());
+            // bulk inserts bypass the version initialization done by save
+            video.setVersion(0L);
+            video.setCategory(category);
+            videos.add(video);
+            positions.add(i);
+            results[i] = result(offset + i, VideoBatchResultDTO.Status.CREATED, video.getId(), null);
+        }
+
+        if (!videos.isEmpty()) {
+            Set<Integer> failed = new HashSet<>();
+            try {
+                videoRepository.bulkInsert(videos);
+            } catch (BulkOperationException e) {
+                for (BulkWriteError error : e.getErrors()) {
+                    failed.add(error.getIndex());
+                    int i = positions.get(error.getIndex());
+                    results[i] = result(offset + i, VideoBatchResultDTO.Status.FAILED, null, Map.of("video", error.getMessage()));
+                }
+            }
+            countInserted(videos, failed);
+        }
+        return Arrays.asList(results);
+    }
+
+    private void countInserted(List<Video> videos, Set<Integer> failed) {
+        Map<String, Long> inserted = new HashMap<>();
+        for (int i = 0; i < videos.size(); i++) {
+            if (!failed.contains(i)) {
+                inserted.merge(videos.get(i).getCategory().getId(), 1L, Long::sum);
+            }
+        }
+        categoryVideoCountRepository.incrementAll(inserted);
+    }
+
+    private Map<String, Category> findCategories(List<Item> items) {
+        Set<String> categoryIds = items.stream()
+                .map(Item::getRequest)
+                .filter(Objects::nonNull)
+                .map(this::getCategoryId)
+                .collect(Collectors.toSet());
+        return StreamSupport.stream(categoryRepository.findAllById(categoryIds).spliterator(), false)
+                .collect(Collectors.toMap(Category::getId, Function.identity()));
+    }
+
+    private String getCategoryId(VideoRequestDTO videoRequest) {
+        return videoRequest.getCategoryId() != null ? videoRequest.getCategoryId() : defaultCategoryId;
+    }
+
+    private Map<String, String> validate(Item item) {
+        Map<String, String> errors = new HashMap<>();
+        if (item.getUnreadable() != null) {
+            errors.put("video", item.getUnreadable());
+            return errors;
+        }
+        VideoRequestDTO videoRequest = item.getRequest();
+        if (videoRequest == null) {
+            errors.put("video", "must not be null");
+            return errors;
+        }
+        for (ConstraintViolation<VideoRequestDTO> violation : validator.validate(videoRequest)) {
+            errors.put(violation.getPropertyPath().toString(), violation.getMessage());
+        }
+        return errors;
+    }
+
+    private VideoBatchResultDTO result(int index, VideoBatchResultDTO.Status status, String id, Map<String, String> errors) {
+        return VideoBatchResultDTO.builder()
+                .index(index)
+                .status(status)
+                .id(id)
+                .errors(errors)
+                .build();
+    }
+
+    /**
+     * One item of a batch: the request, or why its input could not be read.
+     */
+    @Getter
+    @RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+    public static class Item {
+
+        private final VideoRequestDTO request;
+
+        private final String unreadable;
+
+        public static Item of(VideoRequestDTO request) {
+            return new Item(request, null);
+        }
+
+        public static Item unreadable(String reason) {
+            return new Item(null, reason);
+        }
+    }
+}
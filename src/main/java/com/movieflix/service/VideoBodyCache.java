@@ -0,0 +1,144 @@
+package com.movieflix.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.movieflix.domain.dto.VideoResponseDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The JSON of whole videos, encoded once and served as bytes, tagged with the version they were
+ * encoded at, without reading Mongo again. Writes on this instance drop the body at once, and keep a
+ * read that started before them from caching an older one. A write on another instance is not seen
+ * here, nor is a category change racing a read of one of its videos: bodies expire
+ * {@code video-body-cache.ttl-ms} after they were encoded, which bounds how long a stale one is
+ * served. Bodies of at least {@code video-body-cache.gzip-min-bytes} also keep a gzipped copy.
+ * Eviction is bounded by the bytes held, not by the number of videos.
+ */
+@Component
+public class VideoBodyCache {
+
+    public static final String NAME = "videoBodies";
+
+    /**
+     * Rough per-entry cost besides the encoded bytes: the entry, the key and the arrays' headers.
+     */
+    private static final int ENTRY_OVERHEAD = 128;
+
+    private final Cache<String, Body> cache;
+
+    private final ObjectWriter writer;
+
+    private final int gzipMinBytes;
+
+    public VideoBodyCache(ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                          @Value("${video-body-cache.max-bytes}") long maxBytes,
+                          @Value("${video-body-cache.gzip-min-bytes}") int gzipMinBytes,
+                          @Value("${video-body-cache.ttl-ms}") long ttlMs) {
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .expireAfterWrite(ttlMs, TimeUnit.MILLISECONDS)
+                .weigher((String id, Body body) -> body.weight() + 2 * id.length())
+                .recordStats()
+                .build();
+        this.writer = objectMapper.writerFor(VideoResponseDTO.class);
+        this.gzipMinBytes = gzipMinBytes;
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, NAME);
+    }
+
+    /**
+     * @return the body of the video, or {@code null} if none is cached
+     */
+    public Body get(String id) {
+        Body body = cache.getIfPresent(id);
+        return body != null && body.json != null ? body : null;
+    }
+
+    /**
+     * Encodes the video as read at {@code version} and keeps it, unless a newer version is already
+     * cached, or was written.
+     */
+    public Body put(long version, VideoResponseDTO video) {
+        Body body = encode(version, video);
+        cache.asMap().merge(video.getId(), body, VideoBodyCache::newer);
+        return body;
+    }
+
+    /**
+     * Drops the body of the video written at {@code version}; bodies read before it are not cached
+     * again until it expires.
+     */
+    public void invalidate(String id, long version) {
+        cache.asMap().merge(id, new Body(version, null, null, null), VideoBodyCache::newer);
+    }
+
+    private static Body newer(Body cached, Body body) {
+        return body.version >= cached.version ? body : cached;
+    }
+
+    /**
+     * Drops the videos embedding the category. Scans every entry, which is fine as category writes
+     * are rare.
+     */
+    public void invalidateCategory(String categoryId) {
+        cache.asMap().values().removeIf(body -> categoryId.equals(body.categoryId));
+    }
+
+    private Body encode(long version, VideoResponseDTO video) {
+        byte[] json;
+        try {
+            json = writer.writeValueAsBytes(video);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not encode video " + video.getId(), e);
+        }
+        String categoryId = video.getCategory() != null ? video.getCategory().getId() : null;
+        return new Body(version, categoryId, json, json.length >= gzipMinBytes ? gzip(json) : null);
+    }
+
+    /**
+     * @return the compressed bytes, or {@code null} when compressing does not make them smaller
+     */
+    private static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(json.length / 2);
+        try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+            out.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return compressed.size() < json.length ? compressed.toByteArray() : null;
+    }
+
+    /**
+     * A video encoded as JSON, and gzipped when that pays off. Without JSON it only marks the version
+     * a write left the video at.
+     */
+    @Getter
+    @RequiredArgsConstructor
+    public static class Body {
+
+        private final long version;
+
+        private final String categoryId;
+
+        private final byte[] json;
+
+        private final byte[] gzip;
+
+        private int weight() {
+            return ENTRY_OVERHEAD + (json != null ? json.length : 0) + (gzip != null ? gzip.length : 0);
+        }
+    }
+}
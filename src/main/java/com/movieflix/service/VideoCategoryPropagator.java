@@ -0,0 +1,51 @@
+package com.movieflix.service;
+
+import com.movieflix.domain.Category;
+import com.movieflix.repository.CategoryRepository;
+import com.movieflix.repository.VideoRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+/**
+ * Keeps the category snapshot embedded in each video in line with the categories collection.
+ * Runs in the background so category writes do not wait for the affected videos.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class VideoCategoryPropagator {
+
+    private final CategoryRepository categoryRepository;
+
+    private final VideoRepository videoRepository;
+
+    private final VideoBodyCache videoBodyCache;
+
+    @Value("${category-propagation.batch-size:500}")
+    private int batchSize;
+
+    /**
+     * Applies the current state of the category to every video that embeds it. The category is
+     * re-read rather than passed in, so concurrent propagations for the same id always converge
+     * on the latest stored version.
+     */
+    @Async
+    public void propagate(String categoryId) {
+        Optional<Category> category = categoryRepository.findById(categoryId);
+        long updated = 0;
+        long batch;
+        do {
+            batch = category.isPresent()
+                    ? videoRepository.updateCategorySnapshot(category.get(), batchSize)
+                    : videoRepository.removeCategorySnapshot(categoryId, batchSize);
+            updated += batch;
+        } while (batch > 0);
+        videoBodyCache.invalidateCategory(categoryId);
+        log.debug("Propagated category {} to {} videos", categoryId, updated);
+    }
+}
@@ -0,0 +1,42 @@
+package com.movieflix.service;
+
+import com.movieflix.exception.InvalidCursorException;
+import org.bson.types.ObjectId;
+import org.springframework.util.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * The opaque {@code cursor} of the keyset listings of both stacks: the id of the last video of the
+ * previous page, URL-safe Base64 encoded.
+ */
+final class VideoCursors {
+
+    private VideoCursors() {
+    }
+
+    static String encode(String lastId) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(lastId.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return the id to continue after, or {@code null} to start from the first video
+     * @throws InvalidCursorException if the cursor was not issued by {@link #encode}
+     */
+    static String decode(String cursor) {
+        if (!StringUtils.hasText(cursor)) {
+            return null;
+        }
+        String lastId;
+        try {
+            lastId = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException();
+        }
+        if (!ObjectId.isValid(lastId)) {
+            throw new InvalidCursorException();
+        }
+        return lastId;
+    }
+}
@@ -0,0 +1,38 @@
+package com.movieflix.service;
+
+import com.movieflix.exception.InvalidFieldsException;
+import org.springframework.util.StringUtils;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Parses the comma separated {@code fields} request parameter into the video properties to read.
+ */
+public final class VideoFields {
+
+    private static final Set<String> ALLOWED = Set.of("id", "title", "description", "url", "category");
+
+    private VideoFields() {
+    }
+
+    /**
+     * @return the requested fields, or an empty set when every field should be read
+     * @throws InvalidFieldsException if a field is not a video property
+     */
+    public static Set<String> parse(String fields) {
+        if (!StringUtils.hasText(fields)) {
+            return Set.of();
+        }
+        Set<String> parsed = Arrays.stream(fields.split(","))
+                .map(String::trim)
+                .filter(StringUtils::hasText)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        if (!ALLOWED.containsAll(parsed)) {
+            throw new InvalidFieldsException();
+        }
+        return parsed;
+    }
+}
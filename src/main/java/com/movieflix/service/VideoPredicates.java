@@ -0,0 +1,34 @@
+package com.movieflix.service;
+
+import com.movieflix.domain.QVideo;
+import com.querydsl.core.BooleanBuilder;
+import com.querydsl.core.types.Predicate;
+import org.springframework.util.StringUtils;
+
+/**
+ * QueryDSL filters shared by the servlet and reactive video services.
+ */
+public final class VideoPredicates {
+
+    private VideoPredicates() {
+    }
+
+    public static Predicate getPredicate(String title) {
+        return getPredicate(title, null);
+    }
+
+    public static Predicate getPredicate(String title, String categoryId) {
+        QVideo qVideo = new QVideo("video");
+        BooleanBuilder booleanBuilder = new BooleanBuilder();
+
+        if (StringUtils.hasText(title)) {
+            booleanBuilder.and(qVideo.title.containsIgnoreCase(title));
+        }
+
+        if (StringUtils.hasText(categoryId)) {
+            booleanBuilder.and(qVideo.category.id.eq(categoryId));
+        }
+
+        return booleanBuilder;
+    }
+}
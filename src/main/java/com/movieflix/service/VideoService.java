@@ -1,26 +1,37 @@
 package com.movieflix.service;
 
 import com.movieflix.domain.Category;
-import com.movieflix.domain.QVideo;
 import com.movieflix.domain.Video;
+import com.movieflix.domain.dto.CursorPageDTO;
+import com.movieflix.domain.dto.Versioned;
 import com.movieflix.domain.dto.VideoRequestDTO;
 import com.movieflix.domain.dto.VideoResponseDTO;
 import com.movieflix.exception.CategoryNotFoundException;
 import com.movieflix.exception.DataNotFoundException;
+import com.movieflix.exception.VersionConflictException;
+import com.movieflix.mapper.VideoMapper;
+import com.movieflix.metrics.RequestBreakdown;
 import com.movieflix.repository.CategoryRepository;
+import com.movieflix.repository.CategoryVideoCountRepository;
+import com.movieflix.repository.ChangeCounterRepository;
 import com.movieflix.repository.VideoRepository;
-import com.querydsl.core.BooleanBuilder;
+import com.movieflix.repository.VersionView;
 import com.querydsl.core.types.Predicate;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
-import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
-import org.springframework.util.StringUtils;
 
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -30,58 +41,201 @@ public class VideoService {
 
     private final CategoryRepository categoryRepository;
 
-    private final ModelMapper modelMapper;
+    private final VideoMapper videoMapper;
+
+    private final ChangeCounterRepository changeCounterRepository;
+
+    private final CategoryVideoCountRepository categoryVideoCountRepository;
+
+    private final ReadCoalescer readCoalescer;
+
+    private final VideoBodyCache videoBodyCache;
+
+    private final TrendingVideos trendingVideos;
 
     @Value("${default-category.id}")
     private String defaultCategoryId;
 
-    public Page<VideoResponseDTO> findAll(String title, Pageable page) {
-        Predicate predicate = getPredicate(title);
-        Page<Video> videos = videoRepository.findAll(predicate, page);
-        return videos.map(video -> modelMapper.map(video, VideoResponseDTO.class));
+    @Value("${video-page.max-size}")
+    private int maxPageSize;
+
+    @Timed("movieflix.service")
+    public Page<VideoResponseDTO> findAll(String title, Set<String> fields, Pageable page) {
+        Predicate predicate = VideoPredicates.getPredicate(title);
+        Page<Video> videos = videoRepository.findAll(predicate, fields, page);
+        return RequestBreakdown.timeMapping(() -> videos.map(video -> videoMapper.toResponse(video, fields)));
     }
 
-    private Predicate getPredicate(String title) {
-        QVideo qVideo = new QVideo("video");
-        BooleanBuilder booleanBuilder = new BooleanBuilder();
+    @Timed("movieflix.service")
+    public CursorPageDTO<VideoResponseDTO> findAll(String title, Set<String> fields, String cursor, int size) {
+        size = Math.min(Math.max(size, 1), maxPageSize);
+        List<Video> videos = videoRepository.findAllAfter(VideoPredicates.getPredicate(title), VideoCursors.decode(cursor), size + 1, fields);
+        return toCursorPage(videos, fields, size);
+    }
 
-        if (StringUtils.hasText(title)) {
-            booleanBuilder.and(qVideo.title.containsIgnoreCase(title));
-        }
+    private CursorPageDTO<VideoResponseDTO> toCursorPage(List<Video> videos, Set<String> fields, int size) {
+        boolean hasNext = videos.size() > size;
+        List<Video> content = hasNext ? videos.subList(0, size) : videos;
+        List<VideoResponseDTO> responses = RequestBreakdown.timeMapping(() -> content.stream()
+                .map(video -> videoMapper.toResponse(video, fields))
+                .collect(Collectors.toList()));
+        return CursorPageDTO.<VideoResponseDTO>builder()
+                .content(responses)
+                .size(content.size())
+                .nextCursor(hasNext ? VideoCursors.encode(content.get(size - 1).getId()) : null)
+                .build();
+    }
+
+    @Timed("movieflix.service")
+    public Page<VideoResponseDTO> search(String text, Set<String> fields, Pageable page) {
+        Page<Video> videos = videoRepository.search(text, fields, page);
+        return RequestBreakdown.timeMapping(() -> videos.map(video -> videoMapper.toResponse(video, fields)));
+    }
 
-        return booleanBuilder;
+    /**
+     * Streams every matching video straight from a server-side cursor. The stream must be closed
+     * by the caller to release the cursor.
+     */
+    @Timed("movieflix.service")
+    public Stream<VideoResponseDTO> export(String title, String categoryId) {
+        return videoRepository.stream(VideoPredicates.getPredicate(title, categoryId)).map(videoMapper::toResponse);
     }
 
+    @Timed("movieflix.service")
     public VideoResponseDTO create(VideoRequestDTO videoRequest) {
-        Video video = modelMapper.map(videoRequest, Video.class);
+        Video video = videoMapper.toEntity(videoRequest);
         fillCategory(video, videoRequest.getCategoryId());
-        video = videoRepository.save(video);
-        return modelMapper.map(video, VideoResponseDTO.class);
+        Video created = videoRepository.save(video);
+        categoryVideoCountRepository.increment(created.getCategory().getId(), 1);
+        return RequestBreakdown.timeMapping(() -> videoMapper.toResponse(created));
+    }
+
+    /**
+     * Changes whenever any video is written, so it versions every listing of videos.
+     */
+    @Timed("movieflix.service")
+    public long getCollectionVersion() {
+        return changeCounterRepository.get(Video.COLLECTION);
+    }
+
+    /**
+     * Reads only {@code fields}, or every field when it is empty, with the version it was read at.
+     * Concurrent reads of the same video and fields share one lookup, see {@link ReadCoalescer}, which
+     * writes to the video stop sharing.
+     */
+    @Timed("movieflix.service")
+    public Versioned<VideoResponseDTO> findById(String id, Set<String> fields) {
+        return readCoalescer.coalesce(ReadCoalescer.VIDEO, List.of(id, fields), () -> {
+            Video video = videoRepository.findById(id, withVersion(fields)).orElseThrow(DataNotFoundException::new);
+            VideoResponseDTO response = RequestBreakdown.timeMapping(() -> videoMapper.toResponse(video, fields));
+            return Versioned.of(VersionView.orZero(video.getVersion()), response);
+        });
     }
 
-    public VideoResponseDTO findById(String id) {
-        Video video = videoRepository.findById(id).orElseThrow(DataNotFoundException::new);
-        return modelMapper.map(video, VideoResponseDTO.class);
+    private static Set<String> withVersion(Set<String> fields) {
+        if (fields.isEmpty()) {
+            return fields;
+        }
+        Set<String> projection = new LinkedHashSet<>(fields);
+        projection.add("version");
+        return projection;
     }
 
-    public VideoResponseDTO update(String id, VideoRequestDTO videoRequest) {
-        Video video = videoRepository.findById(id).orElseThrow(DataNotFoundException::new);
-        modelMapper.map(videoRequest, video);
+    /**
+     * The whole video encoded as JSON, served from {@link VideoBodyCache} without reading Mongo when
+     * it is cached. Concurrent misses for the same video share one lookup, which writes to the video
+     * stop sharing.
+     */
+    @Timed("movieflix.service")
+    public VideoBodyCache.Body findBodyById(String id) {
+        VideoBodyCache.Body body = videoBodyCache.get(id);
+        if (body != null) {
+            return body;
+        }
+        return readCoalescer.coalesce(ReadCoalescer.VIDEO_BODY, id, () -> {
+            Video video = videoRepository.findById(id).orElseThrow(DataNotFoundException::new);
+            VideoResponseDTO response = RequestBreakdown.timeMapping(() -> videoMapper.toResponse(video));
+            return videoBodyCache.put(VersionView.orZero(video.getVersion()), response);
+        });
+    }
 
+    /**
+     * Updates the video in one round trip, the category comes from the category cache. With a
+     * non-null {@code expectedVersion} the update is rejected if the video changed since.
+     */
+    @Timed("movieflix.service")
+    public VideoResponseDTO update(String id, VideoRequestDTO videoRequest, Long expectedVersion) {
+        Video video = videoMapper.toEntity(videoRequest);
+        video.setId(id);
         fillCategory(video, videoRequest.getCategoryId());
-        videoRepository.save(video);
-        return modelMapper.map(video, VideoResponseDTO.class);
+        Video previous = videoRepository.update(video, expectedVersion).orElseThrow(() -> missingOrConflict(id, expectedVersion));
+        forgetReads(id);
+        videoBodyCache.invalidate(id, VersionView.orZero(previous.getVersion()) + 1);
+        String previousCategoryId = categoryId(previous);
+        String categoryId = video.getCategory().getId();
+        if (!categoryId.equals(previousCategoryId)) {
+            Map<String, Long> deltas = new HashMap<>();
+            deltas.put(categoryId, 1L);
+            if (previousCategoryId != null) {
+                deltas.put(previousCategoryId, -1L);
+            }
+            categoryVideoCountRepository.incrementAll(deltas);
+        }
+        return RequestBreakdown.timeMapping(() -> videoMapper.toResponse(video));
     }
 
-    public void delete(String id) {
-        videoRepository.findById(id).orElseThrow(DataNotFoundException::new);
-        videoRepository.deleteById(id);
+    @Timed("movieflix.service")
+    public void delete(String id, Long expectedVersion) {
+        Video deleted = videoRepository.deleteById(id, expectedVersion).orElseThrow(() -> missingOrConflict(id, expectedVersion));
+        forgetReads(id);
+        // no read of the deleted video is cached again
+        videoBodyCache.invalidate(id, Long.MAX_VALUE);
+        trendingVideos.remove(id);
+        String categoryId = categoryId(deleted);
+        if (categoryId != null) {
+            categoryVideoCountRepository.increment(categoryId, -1);
+        }
+    }
+
+    /**
+     * The category snapshot is removed from the videos of a deleted category.
+     */
+    private static String categoryId(Video video) {
+        return video.getCategory() != null ? video.getCategory().getId() : null;
+    }
+
+    /**
+     * Keeps the reads of the video started before a write from being shared with those after it.
+     */
+    private void forgetReads(String id) {
+        readCoalescer.forget(ReadCoalescer.VIDEO, key -> ((List<?>) key).get(0).equals(id));
+        readCoalescer.forget(ReadCoalescer.VIDEO_BODY, id::equals);
+    }
+
+    /**
+     * Tells apart why a conditional write matched nothing. Only runs on the failure path.
+     */
+    private RuntimeException missingOrConflict(String id, Long expectedVersion) {
+        if (expectedVersion != null && videoRepository.existsById(id)) {
+            return new VersionConflictException();
+        }
+        return new DataNotFoundException();
+    }
+
+    @Timed("movieflix.service")
+    public Page<VideoResponseDTO> findAllByCategory(String categoryId, Set<String> fields, Pageable page) {
+        if (page.getPageSize() > maxPageSize) {
+            page = PageRequest.of(page.getPageNumber(), maxPageSize, page.getSort());
+        }
+        Page<Video> videos = videoRepository.findByCategoryId(categoryId, fields, page);
+        return RequestBreakdown.timeMapping(() -> videos.map(video -> videoMapper.toResponse(video, fields)));
     }
 
-    public List<VideoResponseDTO> findAllByCategory(String categoryId) {
-        return videoRepository.findByCategoryId(categoryId).stream()
-                .map(video -> modelMapper.map(video, VideoResponseDTO.class))
-                .collect(Collectors.toList());
+    @Timed("movieflix.service")
+    public CursorPageDTO<VideoResponseDTO> findAllByCategory(String categoryId, Set<String> fields, String cursor, int size) {
+        size = Math.min(Math.max(size, 1), maxPageSize);
+        List<Video> videos = videoRepository.findByCategoryIdAfter(categoryId, VideoCursors.decode(cursor), size + 1, fields);
+        return toCursorPage(videos, fields, size);
     }
 
     private void fillCategory(Video video, String requestCategoryId) {
@@ -0,0 +1,168 @@
+package com.movieflix.service;
+
+import com.movieflix.domain.Video;
+import com.movieflix.domain.dto.TrendingVideoDTO;
+import com.movieflix.exception.DataNotFoundException;
+import com.movieflix.repository.VideoRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts views in memory and adds them to the videos every {@code video-views.flush-interval-ms}
+ * with one bulk write, rather than writing once per view. Each video counts in a {@link LongAdder},
+ * which spreads concurrent views of a hot video over several cells instead of contending on one.
+ * <p>
+ * A crash loses the views of at most one interval, and pending views are flushed on shutdown. A
+ * failed write puts its views back for the next flush, so a write that failed after applying can
+ * count views twice. Views of unknown videos are dropped when flushed, so recording never reads
+ * Mongo. At most {@code video-views.max-pending-videos} distinct videos wait for a flush, which
+ * bounds the memory held and the ids a flush looks up; views of further videos are rejected until
+ * videos left unviewed for a whole interval make room. {@value #METRIC} counts the views flushed,
+ * dropped and rejected.
+ */
+@Slf4j
+@Service
+@Profile("!reactive")
+public class VideoViewService {
+
+    public static final String METRIC = "movieflix.views";
+
+    private static final Set<String> VIEWED_FIELDS = Set.of("id", "title", "category");
+
+    private final VideoRepository videoRepository;
+
+    private final TrendingVideos trendingVideos;
+
+    private final Counter flushed;
+
+    private final Counter dropped;
+
+    private final Counter rejected;
+
+    private final int maxPendingVideos;
+
+    private final ConcurrentMap<String, LongAdder> pending = new ConcurrentHashMap<>();
+
+    public VideoViewService(VideoRepository videoRepository, TrendingVideos trendingVideos, MeterRegistry meterRegistry,
+                            @Value("${video-views.max-pending-videos:10000}") int maxPendingVideos) {
+        this.videoRepository = videoRepository;
+        this.trendingVideos = trendingVideos;
+        this.flushed = meterRegistry.counter(METRIC, "result", "flushed");
+        this.dropped = meterRegistry.counter(METRIC, "result", "dropped");
+        this.rejected = meterRegistry.counter(METRIC, "result", "rejected");
+        this.maxPendingVideos = maxPendingVideos;
+    }
+
+    /**
+     * @throws DataNotFoundException if the id cannot be the id of a video
+     */
+    public void record(String id) {
+        if (!ObjectId.isValid(id)) {
+            throw new DataNotFoundException();
+        }
+        if (!pending.containsKey(id) && pending.size() >= maxPendingVideos) {
+            // checked before adding, so concurrent views can overshoot the limit by a few videos
+            rejected.increment();
+            return;
+        }
+        add(id, 1);
+    }
+
+    /**
+     * @param categoryId ranks the videos of this category only, or every video when {@code null}
+     */
+    public List<TrendingVideoDTO> findTrending(String categoryId, int size) {
+        return trendingVideos.top(categoryId, size);
+    }
+
+    @Scheduled(fixedDelayString = "${video-views.flush-interval-ms:1000}")
+    public synchronized void flush() {
+        Map<String, Long> views = drain();
+        if (views.isEmpty()) {
+            trendingVideos.add(System.currentTimeMillis(), views, List.of());
+            return;
+        }
+        List<Video> viewed;
+        try {
+            viewed = videoRepository.findAllById(views.keySet(), VIEWED_FIELDS);
+        } catch (RuntimeException e) {
+            views.forEach(this::add);
+            throw e;
+        }
+        Map<String, Long> known = new LinkedHashMap<>();
+        viewed.forEach(video -> known.put(video.getId(), views.get(video.getId())));
+        write(known);
+        trendingVideos.add(System.currentTimeMillis(), known, viewed);
+        long flushedViews = sum(known);
+        flushed.increment(flushedViews);
+        dropped.increment(sum(views) - flushedViews);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        flush();
+    }
+
+    /**
+     * Writes the views, putting back and leaving out of {@code views} the ones that failed.
+     */
+    private void write(Map<String, Long> views) {
+        try {
+            videoRepository.incrementViews(views);
+        } catch (BulkOperationException e) {
+            // the bulk write is unordered, so every update but the failed ones was applied
+            List<String> ids = new ArrayList<>(views.keySet());
+            e.getErrors().forEach(error -> {
+                String id = ids.get(error.getIndex());
+                add(id, views.remove(id));
+            });
+            log.warn("Could not add the views of {} videos, retrying with the next flush", e.getErrors().size());
+        } catch (RuntimeException e) {
+            views.forEach(this::add);
+            throw e;
+        }
+    }
+
+    private Map<String, Long> drain() {
+        Map<String, Long> views = new LinkedHashMap<>();
+        pending.forEach((id, adder) -> {
+            long count = adder.sumThenReset();
+            if (count > 0) {
+                views.put(id, count);
+            } else {
+                // idle for a whole interval, so a view racing the removal is unlikely; it would be lost
+                pending.remove(id, adder);
+            }
+        });
+        return views;
+    }
+
+    private void add(String id, long count) {
+        LongAdder adder = pending.get(id);
+        if (adder == null) {
+            adder = pending.computeIfAbsent(id, key -> new LongAdder());
+        }
+        adder.add(count);
+    }
+
+    private static long sum(Map<String, Long> views) {
+        return views.values().stream().mapToLong(Long::longValue).sum();
+    }
+}
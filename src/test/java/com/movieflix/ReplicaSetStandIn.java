@@ -0,0 +1,35 @@
+package com.movieflix;
+
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import org.springframework.test.context.DynamicPropertyRegistry;
+
+import java.net.InetSocketAddress;
+
+/**
+ * In-memory Mongo with an oplog, standing in for a replica set in tests that need change streams.
+ * It streams inserts and plain updates, but not the findAndModify and findAndRemove writes, and has
+ * no text indexes.
+ */
+public class ReplicaSetStandIn implements AutoCloseable {
+
+    private final MongoServer server = new MongoServer(new MemoryBackend());
+
+    private final InetSocketAddress address;
+
+    public ReplicaSetStandIn() {
+        server.enableOplog();
+        address = server.bind();
+    }
+
+    public void register(DynamicPropertyRegistry registry) {
+        registry.add("spring.data.mongodb.host", address::getHostString);
+        registry.add("spring.data.mongodb.port", address::getPort);
+        registry.add("spring.data.mongodb.auto-index-creation", () -> "false");
+    }
+
+    @Override
+    public void close() {
+        server.shutdown();
+    }
+}
@@ -0,0 +1,23 @@
+package com.movieflix;
+
+import org.springframework.boot.context.TypeExcludeFilter;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.type.classreading.MetadataReader;
+import org.springframework.core.type.classreading.MetadataReaderFactory;
+
+/**
+ * Keeps the nested configurations of the test classes out of the component scan when the
+ * application is booted by hand from the test classpath, as the benchmarks and load suite do.
+ */
+public class TestClassesExcludeFilter extends TypeExcludeFilter {
+
+    public static void register(ConfigurableApplicationContext context) {
+        context.getBeanFactory().registerSingleton("testClassesExcludeFilter", new TestClassesExcludeFilter());
+    }
+
+    @Override
+    public boolean match(MetadataReader metadataReader, MetadataReaderFactory metadataReaderFactory) {
+        String enclosingClass = metadataReader.getClassMetadata().getEnclosingClassName();
+        return enclosingClass != null && (enclosingClass.endsWith("Test") || enclosingClass.endsWith("IT"));
+    }
+}
@@ -0,0 +1,87 @@
+package com.movieflix.admission;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdaptiveLimitTest {
+
+    private static final long FAST = 1_000_000;
+
+    private final AdaptiveLimit limit = new AdaptiveLimit(4, 2, 8, 2.0, 0.5);
+
+    @Test
+    void tryAcquire_whenTheLimitIsReached_shouldRejectUntilReleased() {
+        for (int i = 0; i < 4; i++) {
+            assertTrue(limit.tryAcquire());
+        }
+
+        assertFalse(limit.tryAcquire());
+        limit.release();
+        assertTrue(limit.tryAcquire());
+        assertEquals(4, limit.getInFlight());
+    }
+
+    @Test
+    void release_whenFastAndBusy_shouldRaiseTheLimitUpToTheMaximum() {
+        for (int i = 0; i < 200; i++) {
+            limit.tryAcquire();
+            limit.release(FAST, limit.getLimit(), false);
+        }
+
+        assertEquals(8, limit.getLimit());
+    }
+
+    @Test
+    void release_whenFastButIdle_shouldKeepTheLimit() {
+        for (int i = 0; i < 200; i++) {
+            limit.tryAcquire();
+            limit.release(FAST, 1, false);
+        }
+
+        assertEquals(4, limit.getLimit());
+    }
+
+    @Test
+    void release_whenLatencyExceedsTheTolerance_shouldBackOffOncePerRound() {
+        for (int i = 0; i < 100; i++) {
+            sample(FAST, 1);
+        }
+
+        int decreases = 0;
+        for (int i = 0; i < 2; i++) {
+            decreases += sample(100 * FAST, 4) ? 1 : 0;
+        }
+
+        assertEquals(1, decreases);
+        assertEquals(2, limit.getLimit());
+    }
+
+    @Test
+    void release_whenFastAndSlowRequestsMix_shouldNotBackOff() {
+        for (int i = 0; i < 2000; i++) {
+            limit.tryAcquire();
+            assertFalse(limit.release(i % 4 == 0 ? 10 * FAST : FAST, limit.getLimit(), false));
+        }
+
+        assertEquals(8, limit.getLimit());
+    }
+
+    @Test
+    void release_whenFailed_shouldBackOffDownToTheMinimum() {
+        for (int i = 0; i < 20; i++) {
+            limit.tryAcquire();
+            limit.release(FAST, 1, true);
+        }
+
+        assertEquals(2, limit.getLimit());
+        assertEquals(0, limit.getInFlight());
+    }
+
+    private boolean sample(long latencyNanos, int inFlight) {
+        limit.tryAcquire();
+        return limit.release(latencyNanos, inFlight, false);
+    }
+}
@@ -0,0 +1,151 @@
+package com.movieflix.admission;
+
+import com.movieflix.exception.ConcurrencyLimitException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdmissionControlInterceptorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final AdmissionControlInterceptor interceptor = new AdmissionControlInterceptor(meterRegistry, 2, 1, 10, 2.0, 0.5, 1);
+
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+    @Test
+    void preHandle_whenTheLimitIsReached_shouldShedWithRetryAfter() throws Exception {
+        interceptor.preHandle(request("/videos/{id}"), response, handler("lookup"));
+        interceptor.preHandle(request("/videos/{id}"), response, handler("lookup"));
+
+        ConcurrencyLimitException shed = assertThrows(ConcurrencyLimitException.class,
+                () -> interceptor.preHandle(request("/videos/{id}"), response, handler("lookup")));
+
+        assertEquals(1, shed.getRetryAfterSeconds());
+        assertEquals(1, rejected("/videos/{id}", "high"));
+        assertEquals(2, gauge("concurrency", "/videos/{id}"));
+    }
+
+    @Test
+    void afterCompletion_whenCalled_shouldReleaseThePermit() throws Exception {
+        MockHttpServletRequest request = request("/videos/{id}");
+        interceptor.preHandle(request, response, handler("lookup"));
+
+        interceptor.afterCompletion(request, response, handler("lookup"), null);
+        interceptor.afterCompletion(request, response, handler("lookup"), null);
+
+        assertEquals(0, gauge("concurrency", "/videos/{id}"));
+        assertEquals(2, gauge("limit", "/videos/{id}"));
+    }
+
+    @Test
+    void preHandle_whenAHighPriorityEndpointIsCongested_shouldShedLowPriorityRequests() throws Exception {
+        interceptor.preHandle(request("/videos/{id}"), response, handler("lookup"));
+        interceptor.preHandle(request("/videos/{id}"), response, handler("lookup"));
+        assertThrows(ConcurrencyLimitException.class, () -> interceptor.preHandle(request("/videos/{id}"), response, handler("lookup")));
+
+        assertThrows(ConcurrencyLimitException.class, () -> interceptor.preHandle(request("/videos"), response, handler("search")));
+        assertEquals(1, rejected("/videos", "low"));
+        assertEquals(0, gauge("concurrency", "/videos"));
+    }
+
+    @Test
+    void preHandle_whenALowPriorityEndpointIsFull_shouldStillAdmitHighPriorityRequests() throws Exception {
+        interceptor.preHandle(request("/videos"), response, handler("search"));
+        interceptor.preHandle(request("/videos"), response, handler("search"));
+        assertThrows(ConcurrencyLimitException.class, () -> interceptor.preHandle(request("/videos"), response, handler("search")));
+
+        assertTrue(interceptor.preHandle(request("/videos/{id}"), response, handler("lookup")));
+    }
+
+    @Test
+    void afterCompletion_whenTheRequestFailed_shouldBackOff() throws Exception {
+        response.setStatus(500);
+        for (int i = 0; i < 4; i++) {
+            MockHttpServletRequest request = request("/videos/{id}");
+            interceptor.preHandle(request, response, handler("lookup"));
+            interceptor.afterCompletion(request, response, handler("lookup"), null);
+        }
+
+        assertEquals(1, gauge("limit", "/videos/{id}"));
+    }
+
+    @Test
+    void afterCompletion_whenNotModifiedOrNotFound_shouldReleaseWithoutAdapting() throws Exception {
+        for (int status : new int[]{304, 404}) {
+            response.setStatus(status);
+            for (int i = 0; i < 10; i++) {
+                MockHttpServletRequest first = request("/videos/{id}");
+                MockHttpServletRequest second = request("/videos/{id}");
+                interceptor.preHandle(first, response, handler("lookup"));
+                interceptor.preHandle(second, response, handler("lookup"));
+                interceptor.afterCompletion(first, response, handler("lookup"), null);
+                interceptor.afterCompletion(second, response, handler("lookup"), null);
+            }
+        }
+
+        assertEquals(2, gauge("limit", "/videos/{id}"));
+        assertEquals(0, gauge("concurrency", "/videos/{id}"));
+    }
+
+    @Test
+    void afterConcurrentHandlingStarted_whenCalled_shouldReleaseThePermit() throws Exception {
+        MockHttpServletRequest request = request("/videos/{id}");
+        interceptor.preHandle(request, response, handler("lookup"));
+
+        interceptor.afterConcurrentHandlingStarted(request, response, handler("lookup"));
+
+        assertEquals(0, gauge("concurrency", "/videos/{id}"));
+    }
+
+    @Test
+    void preHandle_whenTheHandlerIsNotControlled_shouldAdmit() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            assertTrue(interceptor.preHandle(request("/videos/trending"), response, handler("trending")));
+        }
+
+        assertTrue(meterRegistry.find(AdmissionControlInterceptor.METRIC + ".limit").gauges().isEmpty());
+    }
+
+    private static MockHttpServletRequest request(String uri) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, uri);
+        return request;
+    }
+
+    private static HandlerMethod handler(String method) throws NoSuchMethodException {
+        return new HandlerMethod(new Handlers(), Handlers.class.getMethod(method));
+    }
+
+    private double gauge(String name, String uri) {
+        return meterRegistry.get(AdmissionControlInterceptor.METRIC + "." + name).tags("method", "GET", "uri", uri).gauge().value();
+    }
+
+    private double rejected(String uri, String priority) {
+        return meterRegistry.get(AdmissionControlInterceptor.METRIC + ".rejected")
+                .tags("method", "GET", "uri", uri, "priority", priority)
+                .counter()
+                .count();
+    }
+
+    static class Handlers {
+
+        @AdmissionControlled
+        public void lookup() {
+        }
+
+        @AdmissionControlled(Priority.LOW)
+        public void search() {
+        }
+
+        public void trending() {
+        }
+    }
+}
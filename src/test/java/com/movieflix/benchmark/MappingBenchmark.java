@@ -0,0 +1,56 @@
+package com.movieflix.benchmark;
+
+import com.movieflix.domain.Category;
+import com.movieflix.domain.Video;
+import com.movieflix.domain.dto.VideoResponseDTO;
+import com.movieflix.mapper.CategoryMapperImpl;
+import com.movieflix.mapper.VideoMapper;
+import com.movieflix.mapper.VideoMapperImpl;
+import org.modelmapper.ModelMapper;
+import org.modelmapper.convention.MatchingStrategies;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the generated {@link VideoMapper} against the reflective ModelMapper (STRICT)
+ * path it replaced, for a single {@code Video -> VideoResponseDTO} conversion.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MappingBenchmark {
+
+    private ModelMapper modelMapper;
+
+    private VideoMapper videoMapper;
+
+    private Video video;
+
+    @Setup
+    public void setup() {
+        modelMapper = new ModelMapper();
+        modelMapper.getConfiguration().setMatchingStrategy(MatchingStrategies.STRICT);
+        videoMapper = new VideoMapperImpl(new CategoryMapperImpl());
+        video = Video.builder()
+                .id("6101d932ec4bf031baadd4d4")
+                .title("Title")
+                .description("Description")
+                .url("https://movieflix.com/videos/1")
+                .category(Category.builder().id("6101d932ec4bf031baadd4d3").title("Free").color("#FFF").build())
+                .build();
+    }
+
+    @Benchmark
+    public VideoResponseDTO modelMapper() {
+        return modelMapper.map(video, VideoResponseDTO.class);
+    }
+
+    @Benchmark
+    public VideoResponseDTO generatedMapper() {
+        return videoMapper.toResponse(video);
+    }
+}
@@ -0,0 +1,97 @@
+package com.movieflix.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.movieflix.domain.dto.CategoryResponseDTO;
+import com.movieflix.domain.dto.VideoResponseDTO;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Encoding and decoding a {@code Page<VideoResponseDTO>}, the body of {@code GET /videos}, in each
+ * format a client can negotiate, with and without gzip. The payload size of each combination is
+ * printed once per fork, as JMH only reports times.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PayloadFormatBenchmark {
+
+    @Param({"json", "cbor"})
+    private String format;
+
+    @Param({"false", "true"})
+    private boolean gzip;
+
+    @Param({"20", "100"})
+    private int size;
+
+    private ObjectMapper objectMapper;
+
+    private ObjectWriter writer;
+
+    private Page<VideoResponseDTO> page;
+
+    private byte[] payload;
+
+    @Setup
+    public void setup() throws IOException {
+        objectMapper = "cbor".equals(format) ? Jackson2ObjectMapperBuilder.cbor().build() : Jackson2ObjectMapperBuilder.json().build();
+        writer = objectMapper.writer();
+        CategoryResponseDTO category = CategoryResponseDTO.builder()
+                .id("6101d932ec4bf031baadd4d3")
+                .title("Free")
+                .color("#FFF")
+                .build();
+        List<VideoResponseDTO> videos = IntStream.range(0, size)
+                .mapToObj(i -> VideoResponseDTO.builder()
+                        .id(String.format("6101d932ec4bf031baad%04x", i))
+                        .title("Title " + i)
+                        .description("Description " + i)
+                        .url("https://movieflix.com/videos/" + i)
+                        .category(category)
+                        .build())
+                .collect(Collectors.toList());
+        page = new PageImpl<>(videos, PageRequest.of(0, size), 10_000);
+        payload = encode();
+        System.out.printf("%npayload format=%s gzip=%s size=%d: %d bytes%n", format, gzip, size, payload.length);
+    }
+
+    @Benchmark
+    public byte[] encode() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (OutputStream out = gzip ? new GZIPOutputStream(bytes) : bytes) {
+            writer.writeValue(out, page);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Decodes into a tree, the part of a client's work that depends on the format.
+     */
+    @Benchmark
+    public JsonNode decode() throws IOException {
+        try (InputStream in = gzip ? new GZIPInputStream(new ByteArrayInputStream(payload)) : new ByteArrayInputStream(payload)) {
+            return objectMapper.readTree(in);
+        }
+    }
+}
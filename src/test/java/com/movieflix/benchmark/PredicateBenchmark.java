@@ -0,0 +1,39 @@
+package com.movieflix.benchmark;
+
+import com.movieflix.service.VideoPredicates;
+import com.querydsl.core.types.Predicate;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of building the QueryDSL filter of a video listing with {@link VideoPredicates}, which
+ * runs on every {@code GET /videos}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PredicateBenchmark {
+
+    private String title = "matrix";
+
+    private String categoryId = "6101d932ec4bf031baadd4d3";
+
+    @Benchmark
+    public Predicate unfiltered() {
+        return VideoPredicates.getPredicate(null);
+    }
+
+    @Benchmark
+    public Predicate byTitle() {
+        return VideoPredicates.getPredicate(title);
+    }
+
+    @Benchmark
+    public Predicate byTitleAndCategory() {
+        return VideoPredicates.getPredicate(title, categoryId);
+    }
+}
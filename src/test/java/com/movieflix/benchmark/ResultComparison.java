@@ -0,0 +1,83 @@
+package com.movieflix.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Compares two JMH JSON result files, typically from two commits, benchmark by benchmark. A change
+ * is flagged when the confidence intervals of both runs do not overlap:
+ *
+ * <pre>
+ * git checkout main &amp;&amp; mvn -Pbenchmark verify -DskipTests -Djmh.result=/tmp/main.json
+ * git checkout feature &amp;&amp; mvn -Pbenchmark verify -DskipTests
+ * mvn -Pbenchmark-compare verify -DskipTests -Djmh.baseline=/tmp/main.json
+ * </pre>
+ */
+public class ResultComparison {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("usage: ResultComparison <baseline.json> <result.json>");
+            System.exit(2);
+        }
+        ObjectMapper objectMapper = new ObjectMapper();
+        Map<String, JsonNode> baseline = byName(objectMapper.readTree(new File(args[0])));
+        Map<String, JsonNode> result = byName(objectMapper.readTree(new File(args[1])));
+
+        System.out.printf("%-70s %14s %14s %9s%n", "Benchmark", "Baseline", "Result", "Change");
+        result.forEach((name, current) -> {
+            JsonNode previous = baseline.get(name);
+            JsonNode metric = current.get("primaryMetric");
+            String unit = metric.get("scoreUnit").asText();
+            double score = metric.get("score").asDouble();
+            if (previous == null) {
+                System.out.printf("%-70s %14s %14s %9s%n", name, "-", format(score, unit), "new");
+                return;
+            }
+            JsonNode previousMetric = previous.get("primaryMetric");
+            double previousScore = previousMetric.get("score").asDouble();
+            double change = (score - previousScore) / previousScore * 100;
+            System.out.printf("%-70s %14s %14s %+8.1f%% %s%n", name, format(previousScore, unit), format(score, unit),
+                    change, verdict(previous, current));
+        });
+    }
+
+    /**
+     * Benchmark name plus its parameters, e.g. {@code SerializationBenchmark.page(size=100)}.
+     */
+    private static Map<String, JsonNode> byName(JsonNode results) {
+        Map<String, JsonNode> byName = new LinkedHashMap<>();
+        for (JsonNode result : results) {
+            StringBuilder name = new StringBuilder(result.get("benchmark").asText().replace("com.movieflix.benchmark.", ""));
+            JsonNode params = result.get("params");
+            if (params != null) {
+                StringBuilder values = new StringBuilder();
+                params.fields().forEachRemaining(param ->
+                        values.append(values.length() == 0 ? "" : ",").append(param.getKey()).append('=').append(param.getValue().asText()));
+                name.append('(').append(values).append(')');
+            }
+            byName.put(name.toString(), result);
+        }
+        return byName;
+    }
+
+    private static String verdict(JsonNode previous, JsonNode current) {
+        JsonNode before = previous.get("primaryMetric").get("scoreConfidence");
+        JsonNode after = current.get("primaryMetric").get("scoreConfidence");
+        if (after.get(0).asDouble() <= before.get(1).asDouble() && before.get(0).asDouble() <= after.get(1).asDouble()) {
+            return "";
+        }
+        boolean higherIsBetter = "thrpt".equals(current.get("mode").asText());
+        boolean higher = after.get(0).asDouble() > before.get(1).asDouble();
+        return higher == higherIsBetter ? "improved" : "REGRESSED";
+    }
+
+    private static String format(double score, String unit) {
+        return String.format("%.3f %s", score, unit);
+    }
+}
@@ -0,0 +1,61 @@
+package com.movieflix.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.movieflix.domain.dto.CategoryResponseDTO;
+import com.movieflix.domain.dto.VideoResponseDTO;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Jackson serialization of a {@code Page<VideoResponseDTO>}, the body of {@code GET /videos},
+ * with the defaults Spring Boot applies to its {@link ObjectMapper}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({"20", "100"})
+    private int size;
+
+    private ObjectWriter writer;
+
+    private Page<VideoResponseDTO> page;
+
+    @Setup
+    public void setup() {
+        writer = Jackson2ObjectMapperBuilder.json().build().writer();
+        CategoryResponseDTO category = CategoryResponseDTO.builder()
+                .id("6101d932ec4bf031baadd4d3")
+                .title("Free")
+                .color("#FFF")
+                .build();
+        List<VideoResponseDTO> videos = IntStream.range(0, size)
+                .mapToObj(i -> VideoResponseDTO.builder()
+                        .id(String.format("6101d932ec4bf031baad%04x", i))
+                        .title("Title " + i)
+                        .description("Description " + i)
+                        .url("https://movieflix.com/videos/" + i)
+                        .category(category)
+                        .build())
+                .collect(Collectors.toList());
+        page = new PageImpl<>(videos, PageRequest.of(0, size), 10_000);
+    }
+
+    @Benchmark
+    public byte[] page() throws Exception {
+        return writer.writeValueAsBytes(page);
+    }
+}
@@ -0,0 +1,80 @@
+package com.movieflix.benchmark;
+
+import com.movieflix.configuration.ControlExceptionHandler;
+import com.movieflix.controller.VideoController;
+import com.movieflix.domain.dto.VideoRequestDTO;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rejecting an invalid {@code POST /videos} body: bean validation of the {@link VideoRequestDTO}
+ * and the field error map {@link ControlExceptionHandler} formats from it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidationErrorBenchmark {
+
+    private LocalValidatorFactoryBean validator;
+
+    private Handler handler;
+
+    private MethodParameter parameter;
+
+    private VideoRequestDTO request;
+
+    private MethodArgumentNotValidException exception;
+
+    /**
+     * Exposes the protected handler method.
+     */
+    static class Handler extends ControlExceptionHandler {
+
+        ResponseEntity<Object> format(MethodArgumentNotValidException ex) {
+            return handleException(ex);
+        }
+    }
+
+    @Setup
+    public void setup() throws Exception {
+        validator = new LocalValidatorFactoryBean();
+        validator.afterPropertiesSet();
+        handler = new Handler();
+        parameter = new MethodParameter(VideoController.class.getMethod("create", VideoRequestDTO.class), 0);
+        request = VideoRequestDTO.builder()
+                .title("")
+                .description("A description well over the fifty characters it is allowed to have")
+                .build();
+        exception = validate();
+    }
+
+    @TearDown
+    public void tearDown() {
+        validator.close();
+    }
+
+    private MethodArgumentNotValidException validate() {
+        BeanPropertyBindingResult bindingResult = new BeanPropertyBindingResult(request, "videoRequestDTO");
+        validator.validate(request, bindingResult);
+        return new MethodArgumentNotValidException(parameter, bindingResult);
+    }
+
+    @Benchmark
+    public ResponseEntity<Object> format() {
+        return handler.format(exception);
+    }
+
+    @Benchmark
+    public ResponseEntity<Object> validateAndFormat() {
+        return handler.format(validate());
+    }
+}
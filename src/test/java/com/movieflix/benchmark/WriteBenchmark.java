@@ -0,0 +1,120 @@
+package com.movieflix.benchmark;
+
+import com.movieflix.MovieflixApplication;
+import com.movieflix.TestClassesExcludeFilter;
+import com.movieflix.domain.Category;
+import com.movieflix.domain.Video;
+import com.movieflix.domain.dto.VideoRequestDTO;
+import com.movieflix.repository.CategoryRepository;
+import com.movieflix.repository.VideoRepository;
+import com.movieflix.service.VideoService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of a video update and delete through the single round trip {@link VideoService} paths,
+ * against the read-then-write sequence they replaced. Needs the Mongo instance configured in
+ * application.properties (or SPRING_DATA_MONGODB_* variables) and works in its own database:
+ *
+ * <pre>
+ * mvn -Pbenchmark verify -DskipTests -Djmh.include=WriteBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WriteBenchmark {
+
+    private ConfigurableApplicationContext context;
+
+    private VideoService videoService;
+
+    private VideoRepository videoRepository;
+
+    private CategoryRepository categoryRepository;
+
+    private VideoRequestDTO request;
+
+    private String updatedId;
+
+    /**
+     * A fresh video for each delete, inserted outside of the measurement.
+     */
+    @State(Scope.Thread)
+    public static class Deleted {
+
+        private String id;
+
+        @Setup(Level.Invocation)
+        public void insert(WriteBenchmark benchmark) {
+            id = benchmark.insertVideo();
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = new SpringApplicationBuilder(MovieflixApplication.class)
+                .web(WebApplicationType.NONE)
+                .initializers(TestClassesExcludeFilter::register)
+                // arguments rather than default properties, which application.properties overrides
+                .run("--spring.data.mongodb.database=movieflix-benchmark",
+                        "--migration.category-snapshot.enabled=false",
+                        "--migration.document-version.enabled=false");
+        videoService = context.getBean(VideoService.class);
+        videoRepository = context.getBean(VideoRepository.class);
+        categoryRepository = context.getBean(CategoryRepository.class);
+
+        Category category = categoryRepository.save(Category.builder().title("Benchmark").color("#FFF").build());
+        request = VideoRequestDTO.builder()
+                .title("Title")
+                .description("Description")
+                .url("https://movieflix.com/videos/1")
+                .categoryId(category.getId())
+                .build();
+        updatedId = insertVideo();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.getBean(MongoTemplate.class).getDb().drop();
+        context.close();
+    }
+
+    private String insertVideo() {
+        return videoRepository.save(Video.builder().title("Title").url("https://movieflix.com/videos/1").build()).getId();
+    }
+
+    @Benchmark
+    public Video findThenSave() {
+        Video video = videoRepository.findById(updatedId).orElseThrow();
+        video.setTitle(request.getTitle());
+        video.setDescription(request.getDescription());
+        video.setUrl(request.getUrl());
+        video.setCategory(categoryRepository.findById(request.getCategoryId()).orElseThrow());
+        return videoRepository.save(video);
+    }
+
+    @Benchmark
+    public Object findAndModify() {
+        return videoService.update(updatedId, request, null);
+    }
+
+    @Benchmark
+    public void findThenDelete(Deleted deleted) {
+        videoRepository.findById(deleted.id).orElseThrow();
+        videoRepository.deleteById(deleted.id);
+    }
+
+    @Benchmark
+    public void deleteWithCount(Deleted deleted) {
+        videoService.delete(deleted.id, null);
+    }
+}
@@ -0,0 +1,200 @@
+package com.movieflix.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.movieflix.ReplicaSetStandIn;
+import com.movieflix.domain.dto.CategoryRequestDTO;
+import com.movieflix.domain.dto.CategoryResponseDTO;
+import com.movieflix.domain.dto.VideoRequestDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "migration.category-snapshot.enabled=false",
+        "migration.document-version.enabled=false",
+        "change-feed.heartbeat-ms=200"
+})
+class ChangeFeedControllerTest {
+
+    /**
+     * Lives as long as the cached application context, so until the test JVM exits.
+     */
+    private static final ReplicaSetStandIn MONGO = new ReplicaSetStandIn();
+
+    @DynamicPropertySource
+    static void mongo(DynamicPropertyRegistry registry) {
+        MONGO.register(registry);
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @Test
+    void subscribe_shouldStreamWritesAndResumeFromTheLastEventId() throws Exception {
+        String categoryId;
+        String lastEventId;
+        try (Subscription subscription = subscribe(null)) {
+            assertEquals("ready", subscription.next().get("event"));
+
+            categoryId = restTemplate.postForObject("/categories",
+                    CategoryRequestDTO.builder().title("Drama").color("#000").build(), CategoryResponseDTO.class).getId();
+            Map<String, String> category = subscription.next();
+            assertEquals("categories", category.get("event"));
+            JsonNode categoryEvent = objectMapper.readTree(category.get("data"));
+            assertEquals("insert", categoryEvent.get("operation").asText());
+            assertEquals(categoryId, categoryEvent.get("id").asText());
+            assertEquals("Drama", categoryEvent.at("/document/title").asText());
+
+            restTemplate.postForObject("/videos", video("First", categoryId), String.class);
+            Map<String, String> video = subscription.next();
+            assertEquals("videos", video.get("event"));
+            assertEquals(categoryId, objectMapper.readTree(video.get("data")).at("/document/category/id").asText());
+            lastEventId = video.get("id");
+        }
+
+        restTemplate.postForObject("/videos", video("Missed", categoryId), String.class);
+
+        try (Subscription subscription = subscribe(lastEventId)) {
+            assertEquals("ready", subscription.next().get("event"));
+            JsonNode missed = objectMapper.readTree(subscription.next().get("data"));
+            assertEquals("videos", missed.get("collection").asText());
+            assertEquals("Missed", missed.at("/document/title").asText());
+        }
+    }
+
+    @Test
+    void subscribe_whenSeveralSubscribe_shouldSendThemTheSameEvents() throws Exception {
+        try (Subscription first = subscribe(null); Subscription second = subscribe(null)) {
+            assertEquals("ready", first.next().get("event"));
+            assertEquals("ready", second.next().get("event"));
+
+            restTemplate.postForObject("/categories", CategoryRequestDTO.builder().title("Comedy").color("#FFF").build(), String.class);
+
+            Map<String, String> event = first.next();
+            assertEquals(event, second.next());
+            assertEquals("Comedy", objectMapper.readTree(event.get("data")).at("/document/title").asText());
+        }
+    }
+
+    @Test
+    void subscribe_withResumeTokenOlderThanTheBuffer_shouldRespondGone() throws Exception {
+        String unknown = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("{\"videos\": {\"_data\": \"00\"}}".getBytes(StandardCharsets.UTF_8));
+        try (Subscription subscription = subscribe(null)) {
+            assertEquals("ready", subscription.next().get("event"));
+
+            HttpResponse<String> response = client.send(request(unknown).build(), HttpResponse.BodyHandlers.ofString());
+
+            assertEquals(410, response.statusCode());
+        }
+    }
+
+    @Test
+    void subscribe_withMalformedResumeToken_shouldRespondBadRequest() throws Exception {
+        HttpResponse<String> response = client.send(request("not a token").build(), HttpResponse.BodyHandlers.ofString());
+
+        assertEquals(400, response.statusCode());
+    }
+
+    private VideoRequestDTO video(String title, String categoryId) {
+        return VideoRequestDTO.builder().title(title).description("Description").url("https://movieflix.com/videos/1")
+                .categoryId(categoryId).build();
+    }
+
+    private HttpRequest.Builder request(String lastEventId) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/changes"))
+                .header("Accept", "text/event-stream");
+        return lastEventId != null ? request.header("Last-Event-ID", lastEventId) : request;
+    }
+
+    private Subscription subscribe(String lastEventId) throws Exception {
+        HttpResponse<Stream<String>> response = client.send(request(lastEventId).build(), HttpResponse.BodyHandlers.ofLines());
+        assertEquals(200, response.statusCode());
+        return new Subscription(response.body());
+    }
+
+    /**
+     * Parses the event stream on its own thread; heartbeat comments are skipped.
+     */
+    private static class Subscription implements AutoCloseable {
+
+        private final BlockingQueue<Map<String, String>> events = new LinkedBlockingQueue<>();
+
+        private final Stream<String> lines;
+
+        Subscription(Stream<String> lines) {
+            this.lines = lines;
+            Thread reader = new Thread(() -> {
+                Map<String, String> event = new HashMap<>();
+                Iterator<String> iterator = lines.iterator();
+                while (hasNext(iterator)) {
+                    String line = iterator.next();
+                    if (line.isEmpty()) {
+                        if (!event.isEmpty()) {
+                            events.add(event);
+                        }
+                        event = new HashMap<>();
+                    } else if (!line.startsWith(":")) {
+                        int colon = line.indexOf(':');
+                        event.merge(line.substring(0, colon), line.substring(colon + 1), (data, more) -> data + "\n" + more);
+                    }
+                }
+            });
+            reader.setDaemon(true);
+            reader.start();
+        }
+
+        /**
+         * False once {@link #close()} shut the connection.
+         */
+        private static boolean hasNext(Iterator<String> lines) {
+            try {
+                return lines.hasNext();
+            } catch (UncheckedIOException e) {
+                return false;
+            }
+        }
+
+        Map<String, String> next() throws InterruptedException {
+            Map<String, String> event = events.poll(10, TimeUnit.SECONDS);
+            assertNotNull(event, "no event within 10s");
+            return event;
+        }
+
+        @Override
+        public void close() {
+            lines.close();
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package com.movieflix.controller;
+
+import com.movieflix.domain.dto.Versioned;
+import com.movieflix.exception.VersionConflictException;
+import com.movieflix.service.VideoBodyCache;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+class ConditionalResponsesTest {
+
+    @SuppressWarnings("unchecked")
+    private final Supplier<String> body = mock(Supplier.class);
+
+    @SuppressWarnings("unchecked")
+    private final Supplier<Versioned<String>> versioned = mock(Supplier.class);
+
+    private final VideoBodyCache.Body encoded = new VideoBodyCache.Body(3, null, new byte[]{1}, new byte[]{2});
+
+    @Test
+    void get_whenNoIfNoneMatch_shouldReturnBodyWithETag() {
+        when(versioned.get()).thenReturn(Versioned.of(3, "body"));
+
+        ResponseEntity<String> response = ConditionalResponses.get(null, 3, "no-cache", versioned);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("\"3\"", response.getHeaders().getETag());
+        assertEquals("no-cache", response.getHeaders().getCacheControl());
+        assertEquals("body", response.getBody());
+    }
+
+    @Test
+    void get_whenETagMatches_shouldReturnNotModifiedWithoutBuildingBody() {
+        ResponseEntity<String> response = ConditionalResponses.get("\"2\", W/\"3\"", 3, "max-age=60", versioned);
+
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertEquals("\"3\"", response.getHeaders().getETag());
+        assertEquals("max-age=60", response.getHeaders().getCacheControl());
+        assertNull(response.getBody());
+        verifyNoInteractions(versioned);
+    }
+
+    @Test
+    void get_whenBodyIsNewerThanTheComparedVersion_shouldTagItWithItsOwnVersion() {
+        when(versioned.get()).thenReturn(Versioned.of(4, "newer body"));
+
+        ResponseEntity<String> response = ConditionalResponses.get("\"2\"", 3, "no-cache", versioned);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("\"4\"", response.getHeaders().getETag());
+        assertEquals("newer body", response.getBody());
+    }
+
+    @Test
+    void getListing_whenNoIfNoneMatch_shouldReturnBodyWithWeakETag() {
+        when(body.get()).thenReturn("body");
+
+        ResponseEntity<String> response = ConditionalResponses.getListing(null, 3, "no-cache", body);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("W/\"3\"", response.getHeaders().getETag());
+        assertEquals(HttpHeaders.ACCEPT, response.getHeaders().getFirst(HttpHeaders.VARY));
+        assertEquals("body", response.getBody());
+    }
+
+    @Test
+    void getListing_whenStrongOrWeakETagMatches_shouldReturnNotModified() {
+        assertEquals(HttpStatus.NOT_MODIFIED, ConditionalResponses.getListing("\"3\"", 3, "no-cache", body).getStatusCode());
+        assertEquals(HttpStatus.NOT_MODIFIED, ConditionalResponses.getListing("W/\"3\"", 3, "no-cache", body).getStatusCode());
+        verifyNoInteractions(body);
+    }
+
+    @Test
+    void get_whenTheVersionReadMatches_shouldReturnNotModified() {
+        ResponseEntity<String> response = ConditionalResponses.get("\"2\", W/\"3\"", "max-age=60", Versioned.of(3, "body"));
+
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertEquals("\"3\"", response.getHeaders().getETag());
+        assertNull(response.getBody());
+    }
+
+    @Test
+    void get_whenTheVersionReadIsNewer_shouldReturnBodyWithItsETag() {
+        ResponseEntity<String> response = ConditionalResponses.get("\"2\"", "no-cache", Versioned.of(3, "body"));
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("\"3\"", response.getHeaders().getETag());
+        assertEquals("body", response.getBody());
+    }
+
+    @Test
+    void getEncoded_whenGzipIsAccepted_shouldWriteTheGzippedBytes() {
+        ResponseEntity<byte[]> response = ConditionalResponses.getEncoded(null, "deflate, gzip;q=0.5", "no-cache", encoded);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("gzip", response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertEquals("\"3-gz\"", response.getHeaders().getETag());
+        assertEquals(List.of(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING), response.getHeaders().getVary());
+        assertArrayEquals(new byte[]{2}, response.getBody());
+    }
+
+    @Test
+    void getEncoded_whenTheTagIsOfAnOlderVersion_shouldTagTheBodyWithItsOwnVersion() {
+        ResponseEntity<byte[]> response = ConditionalResponses.getEncoded("\"1\"", null, "no-cache", encoded);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("\"3\"", response.getHeaders().getETag());
+    }
+
+    @Test
+    void getEncoded_whenGzipIsNotAccepted_shouldWriteTheJsonBytes() {
+        for (String acceptEncoding : new String[]{null, "identity", "gzip;q=0", "gzip;q=0.0"}) {
+            ResponseEntity<byte[]> response = ConditionalResponses.getEncoded(null, acceptEncoding, "no-cache", encoded);
+
+            assertNull(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING), acceptEncoding);
+            assertEquals("\"3\"", response.getHeaders().getETag(), acceptEncoding);
+            assertArrayEquals(new byte[]{1}, response.getBody(), acceptEncoding);
+        }
+    }
+
+    @Test
+    void getEncoded_whenETagMatches_shouldReturnNotModifiedWithoutTheBody() {
+        ResponseEntity<byte[]> response = ConditionalResponses.getEncoded("\"3\"", "gzip", "no-cache", encoded);
+
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertEquals("\"3\"", response.getHeaders().getETag());
+        assertEquals(List.of(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING), response.getHeaders().getVary());
+        assertNull(response.getBody());
+    }
+
+    @Test
+    void getEncoded_whenTheTagOfAnotherRepresentationMatches_shouldReturnNotModifiedWithThatTag() {
+        ResponseEntity<byte[]> response = ConditionalResponses.getEncoded("\"2\", W/\"3-gz\"", "gzip", "no-cache", encoded);
+
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertEquals("\"3-gz\"", response.getHeaders().getETag());
+    }
+
+    @Test
+    void get_whenTheTagOfAnotherRepresentationMatches_shouldReturnNotModified() {
+        ResponseEntity<String> response = ConditionalResponses.get("\"3-cbor\"", 3, "no-cache", versioned);
+
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertEquals("\"3\"", response.getHeaders().getETag());
+        verifyNoInteractions(versioned);
+    }
+
+    @Test
+    void expectedVersion_whenAbsentOrWildcard_shouldReturnNull() {
+        assertNull(ConditionalResponses.expectedVersion(null));
+        assertNull(ConditionalResponses.expectedVersion("*"));
+    }
+
+    @Test
+    void expectedVersion_whenStrongTag_shouldReturnVersion() {
+        assertEquals(3L, ConditionalResponses.expectedVersion("\"3\""));
+        assertEquals(3L, ConditionalResponses.expectedVersion("\"3-cbor\""));
+    }
+
+    @Test
+    void expectedVersion_whenTagCannotMatch_shouldThrowConflict() {
+        assertThrows(VersionConflictException.class, () -> ConditionalResponses.expectedVersion("W/\"3\""));
+        assertThrows(VersionConflictException.class, () -> ConditionalResponses.expectedVersion("\"abc\""));
+    }
+
+    @Test
+    void get_whenETagIsStale_shouldReturnBody() {
+        when(versioned.get()).thenReturn(Versioned.of(3, "body"));
+
+        ResponseEntity<String> response = ConditionalResponses.get("\"2\"", 3, "no-cache", versioned);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("body", response.getBody());
+    }
+}
@@ -0,0 +1,58 @@
+package com.movieflix.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class RepresentationETagAdviceTest {
+
+    private final RepresentationETagAdvice advice = new RepresentationETagAdvice();
+
+    private final MockHttpServletResponse servletResponse = new MockHttpServletResponse();
+
+    private final ServletServerHttpResponse response = new ServletServerHttpResponse(servletResponse);
+
+    @Test
+    void beforeBodyWrite_whenTheBodyIsCbor_shouldTagItsRepresentation() {
+        response.getHeaders().setETag("W/\"3\"");
+
+        advice.beforeBodyWrite("body", null, MediaType.APPLICATION_CBOR, null, null, response);
+
+        assertEquals("W/\"3-cbor\"", response.getHeaders().getETag());
+    }
+
+    @Test
+    void beforeBodyWrite_whenTheTagIsAlreadyOnTheServletResponse_shouldReplaceIt() throws IOException {
+        servletResponse.setHeader(HttpHeaders.ETAG, "\"3\"");
+        response.getHeaders().setETag("\"3\"");
+
+        advice.beforeBodyWrite("body", null, MediaType.APPLICATION_CBOR, null, null, response);
+        response.flush();
+
+        assertEquals(List.of("\"3-cbor\""), servletResponse.getHeaders(HttpHeaders.ETAG));
+    }
+
+    @Test
+    void beforeBodyWrite_whenTheBodyIsJson_shouldKeepTheTag() {
+        response.getHeaders().setETag("\"3\"");
+
+        advice.beforeBodyWrite("body", null, MediaType.APPLICATION_JSON, null, null, response);
+
+        assertEquals("\"3\"", response.getHeaders().getETag());
+    }
+
+    @Test
+    void beforeBodyWrite_whenUntagged_shouldAddNoTag() {
+        advice.beforeBodyWrite("body", null, MediaType.APPLICATION_CBOR, null, null, response);
+
+        assertNull(response.getHeaders().getETag());
+    }
+}
@@ -0,0 +1,208 @@
+package com.movieflix.load;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Closed-loop HTTP load generator: {@code concurrency} workers each send one request, wait for the
+ * response and immediately send the next, for {@code duration} after a {@code warmup} that is not
+ * recorded. Latencies go to an HdrHistogram so p99/p999 are exact.
+ *
+ * <p>To compare the platform-thread and virtual-thread servers, build with {@code -Pjava21} and start
+ * the jar twice, once plain and once with {@code --spring.profiles.active=virtual-threads}. Then run:
+ *
+ * <pre>
+ * mvn -Pload-test verify -Dload.url=http://localhost:8080 -Dload.concurrency=400 -Dload.paths=/videos,/videos?title=a
+ * </pre>
+ *
+ * against each. Concurrency should be well above Tomcat's 200 worker threads, otherwise both modes
+ * behave the same.
+ */
+public class LoadDriver {
+
+    private final HttpClient client;
+
+    private final Supplier<HttpRequest> requests;
+
+    private final Function<HttpRequest, String> endpoint;
+
+    public LoadDriver(HttpClient client, Supplier<HttpRequest> requests) {
+        this(client, requests, request -> request.method() + " " + request.uri().getPath());
+    }
+
+    /**
+     * @param endpoint name under which each request is reported, see {@link Report#endpoints()}
+     */
+    public LoadDriver(HttpClient client, Supplier<HttpRequest> requests, Function<HttpRequest, String> endpoint) {
+        this.client = client;
+        this.requests = requests;
+        this.endpoint = endpoint;
+    }
+
+    public Report run(int concurrency, Duration warmup, Duration duration) throws InterruptedException {
+        measure(concurrency, warmup);
+        return measure(concurrency, duration);
+    }
+
+    public Report measure(int concurrency, Duration duration) throws InterruptedException {
+        long deadline = System.nanoTime() + duration.toNanos();
+        List<Map<String, Recorder>> recorders = new ArrayList<>(concurrency);
+        List<Thread> workers = new ArrayList<>(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            Map<String, Recorder> byEndpoint = new HashMap<>();
+            recorders.add(byEndpoint);
+            Thread worker = new Thread(() -> {
+                while (System.nanoTime() < deadline) {
+                    HttpRequest request = requests.get();
+                    Recorder recorder = byEndpoint.computeIfAbsent(endpoint.apply(request), name -> new Recorder());
+                    long start = System.nanoTime();
+                    try {
+                        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() >= 400) {
+                            recorder.errors++;
+                        }
+                    } catch (IOException e) {
+                        recorder.errors++;
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    recorder.record(System.nanoTime() - start);
+                }
+            }, "load-worker-" + i);
+            workers.add(worker);
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        Recorder total = new Recorder();
+        Map<String, Recorder> endpoints = new TreeMap<>();
+        recorders.forEach(byEndpoint -> byEndpoint.forEach((name, recorder) -> {
+            total.add(recorder);
+            endpoints.computeIfAbsent(name, n -> new Recorder()).add(recorder);
+        }));
+        Map<String, Report> endpointReports = new LinkedHashMap<>();
+        endpoints.forEach((name, recorder) -> endpointReports.put(name, recorder.report(duration, Map.of())));
+        return total.report(duration, endpointReports);
+    }
+
+    /**
+     * Latencies and errors of one worker for one endpoint, only touched by that worker.
+     */
+    private static final class Recorder {
+
+        private final Histogram latencies = new Histogram(TimeUnit.SECONDS.toNanos(60), 3);
+
+        private long errors;
+
+        void record(long nanos) {
+            latencies.recordValue(Math.min(nanos, latencies.getHighestTrackableValue()));
+        }
+
+        void add(Recorder other) {
+            latencies.add(other.latencies);
+            errors += other.errors;
+        }
+
+        Report report(Duration duration, Map<String, Report> endpoints) {
+            return new Report(latencies, errors, duration, endpoints);
+        }
+    }
+
+    public static final class Report {
+
+        private final Histogram latencies;
+
+        private final long errors;
+
+        private final Duration duration;
+
+        private final Map<String, Report> endpoints;
+
+        Report(Histogram latencies, long errors, Duration duration, Map<String, Report> endpoints) {
+            this.latencies = latencies;
+            this.errors = errors;
+            this.duration = duration;
+            this.endpoints = endpoints;
+        }
+
+        public double throughput() {
+            return latencies.getTotalCount() / (duration.toMillis() / 1000.0);
+        }
+
+        public double percentileMillis(double percentile) {
+            return latencies.getValueAtPercentile(percentile) / 1_000_000.0;
+        }
+
+        public long requests() {
+            return latencies.getTotalCount();
+        }
+
+        public long errors() {
+            return errors;
+        }
+
+        public Map<String, Report> endpoints() {
+            return endpoints;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("{\"requests\":%d,\"errors\":%d,\"throughput\":%.1f,\"p50\":%.3f,\"p99\":%.3f,\"p999\":%.3f,\"max\":%.3f}",
+                    requests(), errors, throughput(), percentileMillis(50), percentileMillis(99), percentileMillis(99.9),
+                    latencies.getMaxValue() / 1_000_000.0);
+        }
+    }
+
+    /**
+     * Parses {@code key=value} arguments.
+     */
+    static Map<String, String> options(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            String[] option = arg.split("=", 2);
+            options.put(option[0], option.length > 1 ? option[1] : "");
+        }
+        return options;
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        Map<String, String> options = options(args);
+        String url = options.getOrDefault("url", "http://localhost:8080");
+        String[] paths = options.getOrDefault("paths", "/videos").split(",");
+        int concurrency = Integer.parseInt(options.getOrDefault("concurrency", "100"));
+        Duration warmup = Duration.ofSeconds(Long.parseLong(options.getOrDefault("warmup", "10")));
+        Duration duration = Duration.ofSeconds(Long.parseLong(options.getOrDefault("duration", "30")));
+
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        Supplier<HttpRequest> requests = () -> HttpRequest.newBuilder(URI.create(url + paths[ThreadLocalRandom.current().nextInt(paths.length)]))
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build();
+
+        Report report = new LoadDriver(client, requests).run(concurrency, warmup, duration);
+        System.out.println(report);
+        report.endpoints().forEach((name, endpointReport) -> System.out.println(name + " " + endpointReport));
+    }
+}
@@ -0,0 +1,313 @@
+package com.movieflix.load;
+
+import com.movieflix.MovieflixApplication;
+import com.movieflix.TestClassesExcludeFilter;
+import com.movieflix.domain.Category;
+import com.movieflix.domain.Video;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import org.bson.types.ObjectId;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Boots {@link MovieflixApplication} in process against a seeded catalog and replays a weighted mix
+ * of reads and writes through {@link LoadDriver}, reporting throughput, p50/p99/p999 and the bytes
+ * the server allocates per request for each endpoint:
+ *
+ * <pre>
+ * mvn -Pload-suite verify -DskipTests -Dload.videos=100000 -Dload.mix=search:30,page:30,categories:10,category-videos:15,create:5,update:10
+ * </pre>
+ *
+ * <p>{@code batch} posts {@value #BATCH_SIZE} videos as NDJSON per request. The videos each insert
+ * endpoint created per second, counting successful requests only, are reported too, so a mix such as {@code create:1} against
+ * {@code batch:1} compares bulk and single-item ingestion.
+ *
+ * <p>Without {@code mongo=} the catalog lives in an in-memory mongo-java-server. It holds up to
+ * roughly a million videos, but it scans for every query and its per-command latency dominates, so
+ * its numbers are for comparing runs with each other. Larger catalogs (up to 10M) or production-like
+ * latencies need a local mongod, e.g.
+ * {@code -Dload.mongo=mongodb://localhost:27017}; its database is reused when it already holds the
+ * requested catalog.
+ */
+public class LoadSuite {
+
+    static final String ENDPOINT_HEADER = "X-Load-Endpoint";
+
+    private static final String DATABASE = "movieflix-load";
+
+    private static final int SEED_CHUNK = 10_000;
+
+    private static final int SAMPLED_IDS = 100_000;
+
+    private static final int PAGE_SIZE = 20;
+
+    private static final int BATCH_SIZE = 100;
+
+    private static final String[] WORDS = {"matrix", "river", "night", "city", "ghost", "summer", "last", "road",
+            "storm", "garden", "silent", "dream", "winter", "king", "shadow", "ocean", "fire", "house", "star", "war"};
+
+    private final String baseUrl;
+
+    private final List<String> categoryIds;
+
+    private final List<String> videoIds;
+
+    private final List<String> endpoints = new ArrayList<>();
+
+    private final List<Integer> cumulativeWeights = new ArrayList<>();
+
+    LoadSuite(String baseUrl, List<String> categoryIds, List<String> videoIds, String mix) {
+        this.baseUrl = baseUrl;
+        this.categoryIds = categoryIds;
+        this.videoIds = videoIds;
+        int total = 0;
+        for (String entry : mix.split(",")) {
+            String[] weighted = entry.split(":");
+            total += Integer.parseInt(weighted[1]);
+            endpoints.add(weighted[0]);
+            cumulativeWeights.add(total);
+        }
+    }
+
+    HttpRequest next() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int pick = random.nextInt(cumulativeWeights.get(cumulativeWeights.size() - 1));
+        int index = 0;
+        while (pick >= cumulativeWeights.get(index)) {
+            index++;
+        }
+        String endpoint = endpoints.get(index);
+        switch (endpoint) {
+            case "search":
+                return get(endpoint, "/videos?title=" + WORDS[random.nextInt(WORDS.length)] + "&size=" + PAGE_SIZE);
+            case "page":
+                return get(endpoint, "/videos?page=" + random.nextInt(50) + "&size=" + PAGE_SIZE);
+            case "categories":
+                return get(endpoint, "/categories");
+            case "category-videos":
+                return get(endpoint, "/categories/" + any(categoryIds) + "/videos?page=" + random.nextInt(10) + "&size=" + PAGE_SIZE);
+            case "create":
+                return send(endpoint, "POST", "/videos", videoJson());
+            case "batch":
+                return request(endpoint, "/videos/batch")
+                        .header("Content-Type", "application/x-ndjson")
+                        .POST(HttpRequest.BodyPublishers.ofString(IntStream.range(0, BATCH_SIZE)
+                                .mapToObj(i -> videoJson())
+                                .collect(Collectors.joining("\n"))))
+                        .build();
+            case "update":
+                return send(endpoint, "PUT", "/videos/" + any(videoIds), videoJson());
+            default:
+                throw new IllegalArgumentException("Unknown endpoint " + endpoint);
+        }
+    }
+
+    private HttpRequest get(String endpoint, String path) {
+        return request(endpoint, path).GET().build();
+    }
+
+    private HttpRequest send(String endpoint, String method, String path, String body) {
+        return request(endpoint, path)
+                .header("Content-Type", "application/json")
+                .method(method, HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private HttpRequest.Builder request(String endpoint, String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .header(ENDPOINT_HEADER, endpoint);
+    }
+
+    private String videoJson() {
+        return String.format("{\"title\":\"%s\",\"description\":\"Load test\",\"url\":\"https://movieflix.com/videos/load\",\"categoryId\":\"%s\"}",
+                title(ThreadLocalRandom.current().nextInt(1_000_000)), any(categoryIds));
+    }
+
+    private static String title(int i) {
+        return WORDS[i % WORDS.length] + " " + WORDS[(i / WORDS.length) % WORDS.length] + " " + i;
+    }
+
+    private static String any(List<String> ids) {
+        return ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+    }
+
+    /**
+     * Bytes the request threads allocate while handling each endpoint, read from the thread
+     * allocation counters of the JVM.
+     */
+    static class AllocationFilter extends OncePerRequestFilter {
+
+        private final com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+        private final Map<String, LongAdder> bytes = new ConcurrentHashMap<>();
+
+        @Override
+        protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+                throws ServletException, IOException {
+            String endpoint = request.getHeader(ENDPOINT_HEADER);
+            if (endpoint == null) {
+                filterChain.doFilter(request, response);
+                return;
+            }
+            long thread = Thread.currentThread().getId();
+            long start = threads.getThreadAllocatedBytes(thread);
+            try {
+                filterChain.doFilter(request, response);
+            } finally {
+                bytes.computeIfAbsent(endpoint, name -> new LongAdder()).add(threads.getThreadAllocatedBytes(thread) - start);
+            }
+        }
+
+        void reset() {
+            bytes.clear();
+        }
+
+        long bytes(String endpoint) {
+            LongAdder allocated = bytes.get(endpoint);
+            return allocated == null ? 0 : allocated.sum();
+        }
+    }
+
+    private static double succeeded(LoadDriver.Report report, Duration duration) {
+        return report == null ? 0 : (report.requests() - report.errors()) / (duration.toMillis() / 1000.0);
+    }
+
+    static List<String> seed(MongoTemplate mongoTemplate, int categoryCount, int videoCount) {
+        List<Category> categories = mongoTemplate.findAll(Category.class);
+        if (categories.size() == categoryCount && mongoTemplate.estimatedCount(Video.class) == videoCount) {
+            return categories.stream().map(Category::getId).collect(Collectors.toList());
+        }
+        mongoTemplate.remove(new Query(), Video.class);
+        mongoTemplate.remove(new Query(), Category.class);
+        categories = IntStream.range(0, categoryCount)
+                .mapToObj(i -> Category.builder().title("Category " + i).color("#" + String.format("%06X", i * 4099 % 0xFFFFFF)).version(0L).build())
+                .collect(Collectors.toList());
+        categories = new ArrayList<>(mongoTemplate.insert(categories, Category.class));
+        for (int from = 0; from < videoCount; from += SEED_CHUNK) {
+            List<Category> seeded = categories;
+            List<Video> chunk = IntStream.range(from, Math.min(from + SEED_CHUNK, videoCount))
+                    .mapToObj(i -> Video.builder()
+                            .id(new ObjectId().toHexString())
+                            .title(title(i))
+                            .description("Description " + i)
+                            .url("https://movieflix.com/videos/" + i)
+                            .category(seeded.get(i % seeded.size()))
+                            .version(0L)
+                            .build())
+                    .collect(Collectors.toList());
+            mongoTemplate.insert(chunk, Video.class);
+        }
+        return categories.stream().map(Category::getId).collect(Collectors.toList());
+    }
+
+    static List<String> sampleVideoIds(MongoTemplate mongoTemplate) {
+        Query query = new Query().limit(SAMPLED_IDS);
+        query.fields().include("_id");
+        return mongoTemplate.find(query, Video.class).stream().map(Video::getId).collect(Collectors.toList());
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        Map<String, String> options = LoadDriver.options(args);
+        int videoCount = Integer.parseInt(options.getOrDefault("videos", "10000"));
+        int categoryCount = Integer.parseInt(options.getOrDefault("categories", "20"));
+        int concurrency = Integer.parseInt(options.getOrDefault("concurrency", "50"));
+        Duration warmup = Duration.ofSeconds(Long.parseLong(options.getOrDefault("warmup", "10")));
+        Duration duration = Duration.ofSeconds(Long.parseLong(options.getOrDefault("duration", "30")));
+        String mix = options.getOrDefault("mix", "search:30,page:30,categories:10,category-videos:15,create:5,update:10");
+        String mongo = options.getOrDefault("mongo", "");
+
+        MongoServer server = null;
+        List<String> arguments = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--spring.data.mongodb.database=" + DATABASE,
+                "--migration.category-snapshot.enabled=false",
+                "--migration.document-version.enabled=false",
+                "--logging.level.root=WARN"));
+        if (mongo.isEmpty()) {
+            server = new MongoServer(new MemoryBackend());
+            InetSocketAddress address = server.bind();
+            arguments.add("--spring.data.mongodb.host=" + address.getHostString());
+            arguments.add("--spring.data.mongodb.port=" + address.getPort());
+            // the in-memory server has no text indexes
+            arguments.add("--spring.data.mongodb.auto-index-creation=false");
+        } else {
+            arguments.add("--spring.data.mongodb.uri=" + mongo + "/" + DATABASE);
+        }
+
+        AllocationFilter allocations = new AllocationFilter();
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(MovieflixApplication.class)
+                .initializers(TestClassesExcludeFilter::register,
+                        applicationContext -> applicationContext.getBeanFactory().registerSingleton("allocationFilter", allocations))
+                .run(arguments.toArray(String[]::new));
+        try {
+            MongoTemplate mongoTemplate = context.getBean(MongoTemplate.class);
+            long seeding = System.nanoTime();
+            List<String> categoryIds = seed(mongoTemplate, categoryCount, videoCount);
+            List<String> videoIds = sampleVideoIds(mongoTemplate);
+            System.out.printf("catalog: %d videos in %d categories, ready in %.1fs%n", videoCount, categoryCount,
+                    (System.nanoTime() - seeding) / 1e9);
+
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            LoadSuite suite = new LoadSuite("http://localhost:" + port, categoryIds, videoIds, mix);
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .build();
+            Supplier<HttpRequest> requests = suite::next;
+            LoadDriver driver = new LoadDriver(client, requests,
+                    request -> request.headers().firstValue(ENDPOINT_HEADER).orElse("other"));
+
+            driver.measure(concurrency, warmup);
+            allocations.reset();
+            LoadDriver.Report report = driver.measure(concurrency, duration);
+
+            System.out.println("all " + report);
+            Map<String, LoadDriver.Report> endpoints = new TreeMap<>(report.endpoints());
+            endpoints.forEach((endpoint, endpointReport) -> {
+                long allocated = allocations.bytes(endpoint);
+                System.out.printf("%s %s {\"allocatedPerRequest\":%d,\"allocationRateMBs\":%.1f}%n", endpoint, endpointReport,
+                        endpointReport.requests() == 0 ? 0 : allocated / endpointReport.requests(),
+                        allocated / 1e6 / duration.toSeconds());
+            });
+            LoadDriver.Report create = endpoints.get("create");
+            LoadDriver.Report batch = endpoints.get("batch");
+            if (create != null || batch != null) {
+                System.out.printf("videos created per second {\"create\":%.1f,\"batch\":%.1f}%n",
+                        succeeded(create, duration), succeeded(batch, duration) * BATCH_SIZE);
+            }
+        } finally {
+            context.close();
+            if (server != null) {
+                server.shutdown();
+            }
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package com.movieflix.load;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Launches the plain jar of the {@code cds} profile in a fresh JVM, again and again, against a
+ * seeded in-memory catalog, and reports how long each launch takes from process start to its first
+ * {@code GET /videos} answered with a 200, and its resident memory at that moment. Launches with
+ * the class data sharing archive alternate with launches without it. A missing archive is created
+ * first by a training launch, which dumps the classes it loaded on its way out:
+ *
+ * <pre>
+ * mvn -Pcds verify -DskipTests -Dstartup.runs=10 -Dstartup.jvm-args="-Xmx512m"
+ * </pre>
+ *
+ * <p>The launches need a JDK 13+ for {@code -XX:ArchiveClassesAtExit}. Delete the archive after
+ * changing the code or dependencies: a JVM ignores an archive whose class path no longer matches,
+ * but not one whose classes changed in place. Resident memory is read from {@code /proc} and is only
+ * reported on Linux.
+ */
+public class StartupBenchmark {
+
+    private static final String DATABASE = "movieflix-startup";
+
+    private static final Duration TIMEOUT = Duration.ofMinutes(2);
+
+    private final Path jar;
+
+    private final List<String> jvmArgs;
+
+    private final InetSocketAddress mongo;
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(1))
+            .build();
+
+    StartupBenchmark(Path jar, List<String> jvmArgs, InetSocketAddress mongo) {
+        this.jar = jar;
+        this.jvmArgs = jvmArgs;
+        this.mongo = mongo;
+    }
+
+    /**
+     * Starts the application and stops it once it served its first page of videos.
+     */
+    Launch launch(String name, List<String> extraJvmArgs) throws IOException, InterruptedException {
+        int port = freePort();
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(jvmArgs);
+        command.addAll(extraJvmArgs);
+        command.addAll(List.of("-jar", jar.toString(),
+                "--server.port=" + port,
+                "--spring.data.mongodb.host=" + mongo.getHostString(),
+                "--spring.data.mongodb.port=" + mongo.getPort(),
+                "--spring.data.mongodb.database=" + DATABASE,
+                // the in-memory server has no text indexes
+                "--spring.data.mongodb.auto-index-creation=false"));
+        Path log = jar.resolveSibling("startup-" + name + ".log");
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+        try {
+            awaitFirstPage(process, port, log, start);
+            long nanos = System.nanoTime() - start;
+            return new Launch(nanos, residentKilobytes(process.pid()));
+        } finally {
+            // a graceful exit, which is when the training launch writes the archive
+            process.destroy();
+            if (!process.waitFor(1, TimeUnit.MINUTES)) {
+                process.destroyForcibly();
+            }
+        }
+    }
+
+    private void awaitFirstPage(Process process, int port, Path log, long start) throws InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/videos")).build();
+        while (System.nanoTime() - start < TIMEOUT.toNanos()) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("Application exited with " + process.exitValue() + ", see " + log);
+            }
+            try {
+                if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // not listening yet
+            }
+            Thread.sleep(10);
+        }
+        throw new IllegalStateException("No page of videos within " + TIMEOUT + ", see " + log);
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    /**
+     * @return the resident set size of the process, or -1 where {@code /proc} is not available
+     */
+    private static long residentKilobytes(long pid) {
+        try {
+            return Files.readAllLines(Path.of("/proc", String.valueOf(pid), "status")).stream()
+                    .filter(line -> line.startsWith("VmRSS:"))
+                    .mapToLong(line -> Long.parseLong(line.replaceAll("\\D", "")))
+                    .findFirst()
+                    .orElse(-1);
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    static class Launch {
+
+        private final long nanos;
+
+        private final long residentKilobytes;
+
+        Launch(long nanos, long residentKilobytes) {
+            this.nanos = nanos;
+            this.residentKilobytes = residentKilobytes;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("first page after %dms, %s resident", nanos / 1_000_000,
+                    residentKilobytes < 0 ? "n/a" : residentKilobytes / 1024 + "MB");
+        }
+    }
+
+    private static String summary(List<Launch> launches) {
+        long[] millis = launches.stream().mapToLong(launch -> launch.nanos / 1_000_000).sorted().toArray();
+        long[] megabytes = launches.stream().mapToLong(launch -> launch.residentKilobytes / 1024).sorted().toArray();
+        return String.format("{\"launches\":%d,\"firstPageMs\":{\"median\":%d,\"min\":%d,\"max\":%d},\"residentMB\":{\"median\":%d}}",
+                millis.length, millis[millis.length / 2], millis[0], millis[millis.length - 1], megabytes[megabytes.length / 2]);
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        Map<String, String> options = LoadDriver.options(args);
+        Path jar = Path.of(options.get("jar")).toAbsolutePath();
+        Path archive = Path.of(options.getOrDefault("archive", jar.resolveSibling("movieflix.jsa").toString())).toAbsolutePath();
+        int runs = Integer.parseInt(options.getOrDefault("runs", "5"));
+        List<String> jvmArgs = Arrays.stream(options.getOrDefault("jvm-args", "").split("\\s+"))
+                .filter(arg -> !arg.isEmpty())
+                .collect(Collectors.toList());
+
+        // unconfigured logback logs every command of the in-memory server
+        ((Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+        MongoServer server = new MongoServer(new MemoryBackend());
+        InetSocketAddress address = server.bind();
+        try {
+            try (MongoClient mongoClient = MongoClients.create("mongodb://" + address.getHostString() + ":" + address.getPort())) {
+                LoadSuite.seed(new MongoTemplate(mongoClient, DATABASE), 20, 1000);
+            }
+            StartupBenchmark benchmark = new StartupBenchmark(jar, jvmArgs, address);
+            if (Files.notExists(archive)) {
+                Launch training = benchmark.launch("training", List.of("-XX:ArchiveClassesAtExit=" + archive));
+                System.out.printf("training %s, archive %s (%dMB)%n", training, archive, Files.size(archive) / (1024 * 1024));
+            }
+            List<Launch> plain = new ArrayList<>();
+            List<Launch> shared = new ArrayList<>();
+            for (int i = 0; i < runs; i++) {
+                plain.add(benchmark.launch("plain", List.of()));
+                shared.add(benchmark.launch("cds", List.of("-XX:SharedArchiveFile=" + archive)));
+            }
+            System.out.println("plain " + summary(plain));
+            System.out.println("cds " + summary(shared));
+        } finally {
+            server.shutdown();
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.movieflix.mapper;
+
+import com.movieflix.domain.Category;
+import com.movieflix.domain.Video;
+import com.movieflix.domain.dto.CategoryRequestDTO;
+import com.movieflix.domain.dto.CategoryResponseDTO;
+import com.movieflix.domain.dto.CursorPageDTO;
+import com.movieflix.domain.dto.VideoRequestDTO;
+import com.movieflix.domain.dto.VideoResponseDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+import org.modelmapper.convention.MatchingStrategies;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class VideoMapperTest {
+
+    private ModelMapper modelMapper;
+
+    private CategoryMapper categoryMapper;
+
+    private VideoMapper videoMapper;
+
+    @BeforeEach
+    void init() {
+        this.modelMapper = new ModelMapper();
+        this.modelMapper.getConfiguration().setMatchingStrategy(MatchingStrategies.STRICT);
+        this.categoryMapper = new CategoryMapperImpl();
+        this.videoMapper = new VideoMapperImpl(categoryMapper);
+    }
+
+    @Test
+    void toResponse_whenCalled_shouldMatchModelMapper() {
+        Category category = Category.builder().id("111").title("Category").color("#FFF").build();
+        Video video = Video.builder().id("123").title("Title").description("Description").url("url").category(category).build();
+
+        assertEquals(modelMapper.map(video, VideoResponseDTO.class), videoMapper.toResponse(video));
+        assertEquals(modelMapper.map(category, CategoryResponseDTO.class), categoryMapper.toResponse(category));
+    }
+
+    @Test
+    void toResponse_whenCategoryIsNull_shouldMatchModelMapper() {
+        Video video = Video.builder().id("123").title("Title").description("Description").url("url").build();
+
+        assertEquals(modelMapper.map(video, VideoResponseDTO.class), videoMapper.toResponse(video));
+    }
+
+    @Test
+    void toResponse_whenFieldsAreRequested_shouldOnlySerializeThoseFields() throws Exception {
+        Video video = Video.builder().id("123").title("Title").build();
+        ObjectMapper objectMapper = new ObjectMapper();
+
+        assertEquals("{\"id\":\"123\",\"title\":\"Title\"}",
+                objectMapper.writeValueAsString(videoMapper.toResponse(video, Set.of("title"))));
+        assertEquals("{\"content\":[{\"id\":\"123\",\"title\":\"Title\"}],\"size\":1,\"nextCursor\":null}",
+                objectMapper.writeValueAsString(new CursorPageDTO<>(List.of(videoMapper.toResponse(video, Set.of("title"))), 1, null)));
+        assertEquals("{\"id\":\"123\",\"title\":\"Title\",\"description\":null,\"url\":null,\"category\":null}",
+                objectMapper.writeValueAsString(videoMapper.toResponse(video, Set.of())));
+    }
+
+    @Test
+    void update_whenCalled_shouldOverwriteRequestFieldsOnly() {
+        Category category = Category.builder().id("111").title("Category").color("#FFF").build();
+        Video video = Video.builder().id("123").title("Title").description("Description").url("url").category(category).build();
+        VideoRequestDTO request = VideoRequestDTO.builder().title("Title updated").url("url updated").categoryId("222").build();
+
+        videoMapper.update(request, video);
+
+        assertEquals(Video.builder().id("123").title("Title updated").url("url updated").category(category).build(), video);
+    }
+
+    @Test
+    void toEntity_whenCalled_shouldNotMapIdOrCategory() {
+        VideoRequestDTO videoRequest = VideoRequestDTO.builder().title("Title").description("Description").url("url").categoryId("222").build();
+        CategoryRequestDTO categoryRequest = CategoryRequestDTO.builder().title("Category").color("#FFF").build();
+
+        Video video = videoMapper.toEntity(videoRequest);
+        Category category = categoryMapper.toEntity(categoryRequest);
+
+        assertEquals(Video.builder().title("Title").description("Description").url("url").build(), video);
+        assertNull(category.getId());
+        assertEquals("Category", category.getTitle());
+        assertEquals("#FFF", category.getColor());
+    }
+}
@@ -0,0 +1,70 @@
+package com.movieflix.metrics;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RequestBreakdownFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final RequestBreakdownFilter filter = new RequestBreakdownFilter(meterRegistry);
+
+    private final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/videos/1");
+
+    @Test
+    void doFilter_shouldRecordEachPhaseTaggedWithTheUriPattern() throws Exception {
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/videos/{id}");
+            RequestBreakdown.addDb(3_000_000);
+            RequestBreakdown.addDb(2_000_000);
+            RequestBreakdown.timeMapping(() -> sleep(4));
+            RequestBreakdown.addSerialization(7_000_000);
+        });
+
+        assertEquals(5, phase("db").totalTime(TimeUnit.MILLISECONDS));
+        assertTrue(phase("mapping").totalTime(TimeUnit.MILLISECONDS) >= 4);
+        assertEquals(7, phase("serialization").totalTime(TimeUnit.MILLISECONDS));
+        assertNull(RequestBreakdown.current());
+    }
+
+    @Test
+    void doFilter_whenNoHandlerMatched_shouldNotRecord() throws Exception {
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> RequestBreakdown.addDb(1_000_000));
+
+        assertTrue(meterRegistry.find(RequestBreakdownFilter.METRIC).timers().isEmpty());
+    }
+
+    @Test
+    void add_outsideOfARequest_shouldBeIgnored() {
+        RequestBreakdown.addDb(1_000_000);
+        RequestBreakdown.addSerialization(1_000_000);
+
+        assertEquals("mapped", RequestBreakdown.timeMapping(() -> "mapped"));
+        assertNull(RequestBreakdown.current());
+    }
+
+    private static Object sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return null;
+    }
+
+    private Timer phase(String phase) {
+        return meterRegistry.get(RequestBreakdownFilter.METRIC)
+                .tags("phase", phase, "method", "GET", "uri", "/videos/{id}")
+                .timer();
+    }
+}
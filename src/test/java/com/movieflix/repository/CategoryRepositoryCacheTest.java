@@ -0,0 +1,144 @@
+package com.movieflix.repository;
+
+import com.movieflix.configuration.CacheConfiguration;
+import com.movieflix.domain.Category;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.Advised;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+
+@SpringJUnitConfig
+class CategoryRepositoryCacheTest {
+
+    @Configuration
+    @Import(CacheConfiguration.class)
+    static class Config {
+
+        @Bean
+        CategoryRepository categoryRepository() {
+            return mock(CategoryRepository.class);
+        }
+
+        @Bean
+        CacheManager cacheManager() {
+            return new CaffeineCacheManager(CacheConfiguration.CATEGORIES, CacheConfiguration.CATEGORY_LIST);
+        }
+    }
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private CategoryRepository target;
+
+    private final Category category = Category.builder().id("123").title("Title").color("#FFF").build();
+
+    @BeforeEach
+    void init() throws Exception {
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+        target = (CategoryRepository) ((Advised) categoryRepository).getTargetSource().getTarget();
+        reset(target);
+    }
+
+    @Test
+    void findById_whenCalledTwice_shouldHitTheDatabaseOnce() {
+        when(target.findById("123")).thenReturn(Optional.of(category));
+
+        categoryRepository.findById("123");
+        Optional<Category> response = categoryRepository.findById("123");
+
+        assertEquals(Optional.of(category), response);
+        verify(target, times(1)).findById("123");
+    }
+
+    @Test
+    void findAll_whenTheCollectionVersionChanged_shouldHitTheDatabaseAgain() {
+        when(target.findAll(anyLong())).thenReturn(List.of(category));
+
+        categoryRepository.findAll(1L);
+        categoryRepository.findAll(1L);
+        categoryRepository.findAll(2L);
+
+        verify(target, times(1)).findAll(1L);
+        verify(target, times(1)).findAll(2L);
+    }
+
+    @Test
+    void findCurrentById_whenCalled_shouldReplaceTheCachedEntry() {
+        Category updated = Category.builder().id("123").title("Updated").version(1L).build();
+        when(target.findById("123")).thenReturn(Optional.of(category));
+        when(target.findCurrentById("123")).thenReturn(Optional.of(updated));
+
+        categoryRepository.findById("123");
+        categoryRepository.findCurrentById("123");
+
+        assertEquals(Optional.of(updated), categoryRepository.findById("123"));
+        verify(target, times(1)).findById("123");
+    }
+
+    @Test
+    void save_whenCalled_shouldInvalidateCachedEntries() {
+        when(target.findById("123")).thenReturn(Optional.of(category));
+        when(target.findAll(1L)).thenReturn(List.of(category));
+
+        categoryRepository.findById("123");
+        categoryRepository.findAll(1L);
+        categoryRepository.save(category);
+        categoryRepository.findById("123");
+        categoryRepository.findAll(1L);
+
+        verify(target, times(2)).findById("123");
+        verify(target, times(2)).findAll(1L);
+    }
+
+    @Test
+    void deleteById_whenCalled_shouldInvalidateCachedEntries() {
+        when(target.findById("123")).thenReturn(Optional.of(category));
+
+        categoryRepository.findById("123");
+        categoryRepository.deleteById("123");
+        categoryRepository.findById("123");
+
+        verify(target, times(2)).findById("123");
+    }
+
+    @Test
+    void update_whenCalled_shouldInvalidateCachedEntries() {
+        when(target.findById("123")).thenReturn(Optional.of(category));
+        when(target.findAll(1L)).thenReturn(List.of(category));
+
+        categoryRepository.findById("123");
+        categoryRepository.findAll(1L);
+        categoryRepository.update(category, 1L);
+        categoryRepository.findById("123");
+        categoryRepository.findAll(1L);
+
+        verify(target, times(2)).findById("123");
+        verify(target, times(2)).findAll(1L);
+    }
+
+    @Test
+    void deleteByIdWithVersion_whenCalled_shouldInvalidateCachedEntries() {
+        when(target.findById("123")).thenReturn(Optional.of(category));
+
+        categoryRepository.findById("123");
+        categoryRepository.deleteById("123", 1L);
+        categoryRepository.findById("123");
+
+        verify(target, times(2)).findById("123");
+    }
+}
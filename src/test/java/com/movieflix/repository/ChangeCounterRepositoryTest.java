@@ -0,0 +1,75 @@
+package com.movieflix.repository;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.mongodb.client.model.UpdateOptions;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.net.InetSocketAddress;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ChangeCounterRepositoryTest {
+
+    private final MongoServer server = new MongoServer(new MemoryBackend());
+
+    private final MongoClient client;
+
+    private final MongoTemplate mongoTemplate;
+
+    ChangeCounterRepositoryTest() {
+        InetSocketAddress address = server.bind();
+        client = MongoClients.create("mongodb://" + address.getHostString() + ":" + address.getPort());
+        mongoTemplate = new MongoTemplate(client, "test");
+    }
+
+    @AfterEach
+    void shutdown() {
+        client.close();
+        server.shutdown();
+    }
+
+    @Test
+    void get_whenCalledAgain_shouldServeTheCounterFromMemory() {
+        ChangeCounterRepository counters = new ChangeCounterRepository(mongoTemplate, 60_000);
+        assertEquals(0, counters.get("videos"));
+
+        incrementElsewhere("videos");
+
+        assertEquals(0, counters.get("videos"));
+        assertEquals(1, new ChangeCounterRepository(mongoTemplate, 60_000).get("videos"));
+    }
+
+    @Test
+    void increment_whenCalled_shouldBeReadRightAway() {
+        ChangeCounterRepository counters = new ChangeCounterRepository(mongoTemplate, 60_000);
+        assertEquals(0, counters.sum("videos", "categories"));
+
+        counters.increment("videos");
+        counters.increment("categories");
+
+        assertEquals(1, counters.get("videos"));
+        assertEquals(2, counters.sum("videos", "categories"));
+    }
+
+    @Test
+    void get_whenTheCounterExpired_shouldSeeWritesOfOtherInstances() throws Exception {
+        ChangeCounterRepository counters = new ChangeCounterRepository(mongoTemplate, 10);
+        assertEquals(0, counters.sum("videos", "categories"));
+
+        incrementElsewhere("categories");
+        Thread.sleep(50);
+
+        assertEquals(1, counters.sum("videos", "categories"));
+    }
+
+    private void incrementElsewhere(String collection) {
+        mongoTemplate.getCollection(ChangeCounterRepository.COLLECTION).updateOne(new Document("_id", collection),
+                new Document("$inc", new Document("value", 1L)), new UpdateOptions().upsert(true));
+    }
+}
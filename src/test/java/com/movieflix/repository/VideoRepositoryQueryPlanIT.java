@@ -0,0 +1,208 @@
+package com.movieflix.repository;
+
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.movieflix.domain.Category;
+import com.movieflix.domain.Video;
+import com.movieflix.service.VideoPredicates;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Captures the commands each hot repository query sends to Mongo, re-runs them through {@code explain}
+ * and fails when a plan contains a COLLSCAN. Needs a real mongod (explain is not emulated by in-memory
+ * servers), so it runs under {@code mvn -Pquery-plans verify} against the configured host and port,
+ * in its own database.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.data.mongodb.database=movieflix-query-plans",
+        "migration.category-snapshot.enabled=false"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class VideoRepositoryQueryPlanIT {
+
+    private static final Set<String> EXPLAINABLE = Set.of("find", "aggregate", "count", "distinct", "update", "delete", "findAndModify");
+
+    private static final List<BsonDocument> COMMANDS = new CopyOnWriteArrayList<>();
+
+    @TestConfiguration
+    static class Config {
+
+        @Bean
+        MongoClientSettingsBuilderCustomizer commandCapture() {
+            return settings -> settings.addCommandListener(new CommandListener() {
+                @Override
+                public void commandStarted(CommandStartedEvent event) {
+                    if (EXPLAINABLE.contains(event.getCommandName())) {
+                        COMMANDS.add(event.getCommand().clone());
+                    }
+                }
+            });
+        }
+    }
+
+    @Autowired
+    private VideoRepository videoRepository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    private Category category;
+
+    @BeforeAll
+    void seed() {
+        mongoTemplate.remove(new Query(), Video.class);
+        mongoTemplate.remove(new Query(), Category.class);
+        category = mongoTemplate.save(Category.builder().title("Drama").color("#000").build());
+        Category other = mongoTemplate.save(Category.builder().title("Comedy").color("#FFF").build());
+        videoRepository.saveAll(IntStream.range(0, 200)
+                .mapToObj(i -> Video.builder()
+                        .title("Video " + i)
+                        .description("Description " + i)
+                        .url("http://video/" + i)
+                        .category(i % 2 == 0 ? category : other)
+                        .build())
+                .collect(Collectors.toList()));
+    }
+
+    @AfterAll
+    void drop() {
+        mongoTemplate.getDb().drop();
+    }
+
+    @BeforeEach
+    void reset() {
+        COMMANDS.clear();
+    }
+
+    @Test
+    void findByCategoryId_shouldUseAnIndex() {
+        videoRepository.findByCategoryId(category.getId(), Set.of("title", "url"), PageRequest.of(3, 10));
+        videoRepository.findByCategoryIdAfter(category.getId(), null, 10, Set.of());
+
+        assertIndexed();
+    }
+
+    @Test
+    void findAll_byTitleSortedByTitle_shouldUseAnIndex() {
+        videoRepository.findAll(VideoPredicates.getPredicate("video 1"), PageRequest.of(1, 10, Sort.by("title")));
+
+        assertIndexed();
+    }
+
+    @Test
+    void findAll_sortedByTitle_shouldUseAnIndex() {
+        videoRepository.findAll(PageRequest.of(2, 10, Sort.by("title")));
+
+        assertIndexed();
+    }
+
+    @Test
+    void findAllAfter_shouldUseAnIndex() {
+        List<Video> first = videoRepository.findAllAfter(VideoPredicates.getPredicate(null), null, 10, Set.of());
+        videoRepository.findAllAfter(VideoPredicates.getPredicate("video"), first.get(9).getId(), 10, Set.of());
+
+        assertIndexed();
+    }
+
+    @Test
+    void stream_byCategory_shouldUseAnIndex() {
+        try (Stream<Video> videos = videoRepository.stream(VideoPredicates.getPredicate(null, category.getId()))) {
+            videos.forEach(video -> { });
+        }
+
+        assertIndexed();
+    }
+
+    @Test
+    void search_shouldUseAnIndex() {
+        videoRepository.search("video", Set.of(), PageRequest.of(0, 10));
+
+        assertIndexed();
+    }
+
+    @Test
+    void updateCategorySnapshot_shouldUseAnIndex() {
+        videoRepository.updateCategorySnapshot(category, 50);
+        videoRepository.removeCategorySnapshot("000000000000000000000000", 50);
+
+        assertIndexed();
+    }
+
+    private void assertIndexed() {
+        List<String> collectionScans = new ArrayList<>();
+        int explained = 0;
+        for (BsonDocument command : COMMANDS) {
+            BsonDocument query = explainable(command);
+            if (query == null) {
+                continue;
+            }
+            explained++;
+            Document plan = mongoTemplate.getDb().runCommand(new Document("explain", query).append("verbosity", "queryPlanner"));
+            if (containsCollectionScan(plan.toBsonDocument(BsonDocument.class, mongoTemplate.getDb().getCodecRegistry()))) {
+                collectionScans.add(query.toJson());
+            }
+        }
+        assertTrue(explained > 0, "no filtered or sorted query was captured");
+        assertTrue(collectionScans.isEmpty(), "COLLSCAN for " + collectionScans);
+    }
+
+    /**
+     * Strips the driver's session and routing fields. Unfiltered, unsorted reads are skipped: scanning
+     * is what they ask for, an index would not change their plan.
+     */
+    private static BsonDocument explainable(BsonDocument command) {
+        BsonDocument query = new BsonDocument();
+        command.forEach((key, value) -> {
+            if (!key.startsWith("$") && !key.equals("lsid") && !key.equals("txnNumber")) {
+                query.put(key, value);
+            }
+        });
+        boolean filtered = Stream.of("filter", "query", "sort")
+                .anyMatch(key -> query.containsKey(key) && !query.getDocument(key).isEmpty());
+        boolean pipelineFiltered = query.containsKey("pipeline") && query.getArray("pipeline").stream()
+                .map(BsonValue::asDocument)
+                .anyMatch(stage -> stage.containsKey("$match") && !stage.getDocument("$match").isEmpty());
+        boolean writes = query.containsKey("updates") || query.containsKey("deletes");
+        return filtered || pipelineFiltered || writes ? query : null;
+    }
+
+    private static boolean containsCollectionScan(BsonValue value) {
+        if (value.isDocument()) {
+            BsonDocument document = value.asDocument();
+            if (document.isString("stage") && "COLLSCAN".equals(document.getString("stage").getValue())) {
+                return true;
+            }
+            return document.values().stream().anyMatch(VideoRepositoryQueryPlanIT::containsCollectionScan);
+        }
+        if (value.isArray()) {
+            return value.asArray().stream().anyMatch(VideoRepositoryQueryPlanIT::containsCollectionScan);
+        }
+        return false;
+    }
+}
@@ -0,0 +1,60 @@
+package com.movieflix.service;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.mongodb.client.MongoCollection;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CatalogChangeFeedTest {
+
+    private final MongoServer server = new MongoServer(new MemoryBackend());
+
+    private final MongoClient client;
+
+    CatalogChangeFeedTest() {
+        InetSocketAddress address = server.bind();
+        client = MongoClients.create("mongodb://" + address.getHostString() + ":" + address.getPort());
+    }
+
+    @AfterEach
+    void shutdown() {
+        client.close();
+        server.shutdown();
+    }
+
+    /**
+     * The stand-in does not describe updates in its change events, so the filter is run as a query
+     * over events shaped like Mongo's, which is how the $match stage evaluates it.
+     */
+    @Test
+    void notViewsOnly_shouldOnlyLeaveOutUpdatesOfTheViews() {
+        MongoCollection<Document> events = client.getDatabase("test").getCollection("events");
+        events.insertMany(List.of(
+                event("insert", "inserted", null),
+                event("update", "views", new Document("views", 12L)),
+                event("update", "edited", new Document("title", "Title").append("version", 2L)),
+                event("update", "both", new Document("views", 12L).append("version", 2L)),
+                event("update", "unset", new Document()),
+                event("delete", "deleted", null)));
+
+        List<String> passed = events.find(CatalogChangeFeed.NOT_VIEWS_ONLY).map(event -> event.getString("name"))
+                .into(new ArrayList<>());
+
+        assertEquals(List.of("inserted", "edited", "both", "unset", "deleted"), passed);
+    }
+
+    private static Document event(String operation, String name, Document updatedFields) {
+        Document event = new Document("operationType", operation).append("name", name);
+        return updatedFields != null ? event.append("updateDescription", new Document("updatedFields", updatedFields)) : event;
+    }
+}
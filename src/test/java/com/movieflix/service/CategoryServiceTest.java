@@ -3,21 +3,31 @@ package com.movieflix.service;
 import com.movieflix.domain.Category;
 import com.movieflix.domain.dto.CategoryRequestDTO;
 import com.movieflix.domain.dto.CategoryResponseDTO;
+import com.movieflix.domain.dto.CategorySummaryDTO;
+import com.movieflix.domain.dto.Versioned;
 import com.movieflix.exception.DataNotFoundException;
+import com.movieflix.exception.VersionConflictException;
+import com.movieflix.mapper.CategoryMapperImpl;
 import com.movieflix.repository.CategoryRepository;
+import com.movieflix.repository.CategoryVideoCountRepository;
+import com.movieflix.repository.ChangeCounterRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.modelmapper.ModelMapper;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -28,22 +38,48 @@ class CategoryServiceTest {
     @Mock
     private CategoryRepository categoryRepository;
 
+    @Mock
+    private VideoCategoryPropagator videoCategoryPropagator;
+
+    @Mock
+    private ChangeCounterRepository changeCounterRepository;
+
+    @Mock
+    private CategoryVideoCountRepository categoryVideoCountRepository;
+
     @BeforeEach
     void init() {
-        this.categoryService = new CategoryService(categoryRepository, new ModelMapper());
+        this.categoryService = new CategoryService(categoryRepository, new CategoryMapperImpl(), videoCategoryPropagator, changeCounterRepository,
+                categoryVideoCountRepository, new ReadCoalescer(new SimpleMeterRegistry(), Set.of(ReadCoalescer.CATEGORY)));
     }
 
     @Test
     void findAll_whenCalled_shouldReturnCategoryList() {
         List<Category> categories = List.of(Category.builder().id("123").title("Title").color("#FFF").build());
         List<CategoryResponseDTO> expectedResponse = List.of(CategoryResponseDTO.builder().id("123").title("Title").color("#FFF").build());
-        when(categoryRepository.findAll()).thenReturn(categories);
+        when(categoryRepository.findAll(7L)).thenReturn(categories);
 
-        List<CategoryResponseDTO> response = categoryService.findAll();
+        List<CategoryResponseDTO> response = categoryService.findAll(7L);
 
         assertEquals(expectedResponse, response);
     }
 
+    @Test
+    void findSummary_whenCalled_shouldReturnCategoriesWithTheirVideoCount() {
+        List<Category> categories = List.of(
+                Category.builder().id("123").title("Title").color("#FFF").build(),
+                Category.builder().id("456").title("Empty").color("#000").build());
+        when(changeCounterRepository.get(Category.COLLECTION)).thenReturn(7L);
+        when(categoryRepository.findAll(7L)).thenReturn(categories);
+        when(categoryVideoCountRepository.findAll()).thenReturn(Map.of("123", 42L, "789", 3L));
+
+        List<CategorySummaryDTO> response = categoryService.findSummary();
+
+        assertEquals(List.of(
+                CategorySummaryDTO.builder().id("123").title("Title").color("#FFF").videoCount(42).build(),
+                CategorySummaryDTO.builder().id("456").title("Empty").color("#000").videoCount(0).build()), response);
+    }
+
     @Test
     void create_whenCalled_shouldReturnCreatedCategoryWithId() {
         Category category = Category.builder().id("123").title("Title").color("#FFF").build();
@@ -58,16 +94,31 @@ class CategoryServiceTest {
     }
 
     @Test
-    void findById_whenFound_shouldReturnCategory() {
-        Category category = Category.builder().id("123").title("Title").color("#FFF").build();
+    void findById_whenCachedAtVersion_shouldReturnCachedCategory() {
+        Category category = Category.builder().id("123").title("Title").color("#FFF").version(2L).build();
         String id = "123";
         CategoryResponseDTO expectedResponse = CategoryResponseDTO.builder().id("123").title("Title").color("#FFF").build();
 
         when(categoryRepository.findById(id)).thenReturn(Optional.of(category));
 
-        CategoryResponseDTO response = categoryService.findById(id);
+        Versioned<CategoryResponseDTO> response = categoryService.findById(id, 2L);
 
-        assertEquals(expectedResponse, response);
+        assertEquals(expectedResponse, response.getBody());
+        assertEquals(2L, response.getVersion());
+        verify(categoryRepository, never()).findCurrentById(any());
+    }
+
+    @Test
+    void findById_whenCachedCopyIsOlder_shouldReloadIt() {
+        String id = "123";
+
+        when(categoryRepository.findById(id)).thenReturn(Optional.of(Category.builder().id("123").title("Old").version(2L).build()));
+        when(categoryRepository.findCurrentById(id)).thenReturn(Optional.of(Category.builder().id("123").title("New").version(4L).build()));
+
+        Versioned<CategoryResponseDTO> response = categoryService.findById(id, 3L);
+
+        assertEquals("New", response.getBody().getTitle());
+        assertEquals(4L, response.getVersion());
     }
 
     @Test
@@ -75,51 +126,97 @@ class CategoryServiceTest {
         String id = "123";
 
         when(categoryRepository.findById(id)).thenReturn(Optional.empty());
+        when(categoryRepository.findCurrentById(id)).thenReturn(Optional.empty());
 
-        assertThrows(DataNotFoundException.class, () -> categoryService.findById(id));
+        assertThrows(DataNotFoundException.class, () -> categoryService.findById(id, 0L));
     }
 
     @Test
     void update_whenFound_shouldReturnUpdatedCategory() {
-        Category category = Category.builder().id("123").title("Title").color("#FFF").build();
+        Category category = Category.builder().id("123").title("Title").color("#FFF").version(5L).build();
         CategoryRequestDTO request = CategoryRequestDTO.builder().title("Title").color("#FFF").build();
         CategoryResponseDTO expectedResponse = CategoryResponseDTO.builder().id("123").title("Title").color("#FFF").build();
 
-        when(categoryRepository.findById("123")).thenReturn(Optional.of(category));
+        when(categoryRepository.update(any(), eq(4L))).thenReturn(Optional.of(category));
 
-        CategoryResponseDTO response = categoryService.update("123", request);
+        CategoryResponseDTO response = categoryService.update("123", request, 4L);
 
         assertEquals(expectedResponse, response);
+        verify(categoryRepository).update(argThat(updated -> updated.getId().equals("123") && updated.getTitle().equals("Title")), eq(4L));
+        verify(categoryRepository, never()).findById(any());
+        verify(videoCategoryPropagator).propagate("123");
+    }
+
+    @Test
+    void update_whenVersionChanged_shouldThrowConflict() {
+        CategoryRequestDTO request = CategoryRequestDTO.builder().title("Title").color("#FFF").build();
+
+        when(categoryRepository.update(any(), eq(4L))).thenReturn(Optional.empty());
+        when(categoryRepository.existsById("123")).thenReturn(true);
+
+        assertThrows(VersionConflictException.class, () -> categoryService.update("123", request, 4L));
+        verify(videoCategoryPropagator, never()).propagate(any());
+    }
+
+    @Test
+    void getVersion_whenFound_shouldReturnCategoryVersion() {
+        when(categoryRepository.findVersionById("123")).thenReturn(Optional.of(() -> 4L));
+
+        assertEquals(4L, categoryService.getVersion("123"));
+    }
+
+    @Test
+    void getVersion_whenDocumentHasNoVersion_shouldReturnZero() {
+        when(categoryRepository.findVersionById("123")).thenReturn(Optional.of(() -> null));
+
+        assertEquals(0L, categoryService.getVersion("123"));
+    }
+
+    @Test
+    void getVersion_whenNotFound_shouldThrowException() {
+        when(categoryRepository.findVersionById("123")).thenReturn(Optional.empty());
+
+        assertThrows(DataNotFoundException.class, () -> categoryService.getVersion("123"));
+    }
+
+    @Test
+    void getCollectionVersion_whenCalled_shouldReturnCategoriesCounter() {
+        when(changeCounterRepository.get(Category.COLLECTION)).thenReturn(7L);
+
+        assertEquals(7L, categoryService.getCollectionVersion());
     }
 
     @Test
     void update_whenNotFound_shouldThrowException() {
         CategoryRequestDTO request = CategoryRequestDTO.builder().title("Title").color("#FFF").build();
 
-        when(categoryRepository.findById("123")).thenReturn(Optional.empty());
+        when(categoryRepository.update(any(), isNull())).thenReturn(Optional.empty());
 
-        assertThrows(DataNotFoundException.class, () -> categoryService.update("123", request));
+        assertThrows(DataNotFoundException.class, () -> categoryService.update("123", request, null));
+        verify(videoCategoryPropagator, never()).propagate(any());
     }
 
     @Test
     void delete_whenFound_shouldDeleteTheCategory() {
-        Category category = Category.builder().id("123").title("Title").color("#FFF").build();
         String id = "123";
 
-        when(categoryRepository.findById(id)).thenReturn(Optional.of(category));
+        when(categoryRepository.deleteById(id, null)).thenReturn(true);
 
-        categoryService.delete(id);
+        categoryService.delete(id, null);
 
-        verify(categoryRepository).deleteById(id);
+        verify(categoryRepository, never()).findById(any());
+        verify(categoryVideoCountRepository).delete(id);
+        verify(videoCategoryPropagator).propagate(id);
     }
 
     @Test
     void delete_whenNotFound_shouldThrowException() {
         String id = "123";
 
-        when(categoryRepository.findById(id)).thenReturn(Optional.empty());
+        when(categoryRepository.deleteById(id, 2L)).thenReturn(false);
+        when(categoryRepository.existsById(id)).thenReturn(false);
 
-        assertThrows(DataNotFoundException.class, () -> categoryService.delete(id));
-        verify(categoryRepository, never()).deleteById(any());
+        assertThrows(DataNotFoundException.class, () -> categoryService.delete(id, 2L));
+        verify(videoCategoryPropagator, never()).propagate(any());
     }
 }
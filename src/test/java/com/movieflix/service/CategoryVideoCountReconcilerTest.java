@@ -0,0 +1,74 @@
+package com.movieflix.service;
+
+import com.movieflix.repository.CategoryVideoCountRepository;
+import com.movieflix.repository.ChangeCounterRepository;
+import com.movieflix.repository.LeaseRepository;
+import com.movieflix.repository.VideoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CategoryVideoCountReconcilerTest {
+
+    private CategoryVideoCountReconciler reconciler;
+
+    @Mock
+    private VideoRepository videoRepository;
+
+    @Mock
+    private CategoryVideoCountRepository categoryVideoCountRepository;
+
+    @Mock
+    private ChangeCounterRepository changeCounterRepository;
+
+    @Mock
+    private LeaseRepository leaseRepository;
+
+    @BeforeEach
+    void init() {
+        this.reconciler = new CategoryVideoCountReconciler(videoRepository, categoryVideoCountRepository, changeCounterRepository, leaseRepository);
+        ReflectionTestUtils.setField(reconciler, "intervalMs", 600000L);
+    }
+
+    @Test
+    void reconcile_whenCountsDrifted_shouldIncrementOnlyTheDriftedOnesByTheirDrift() {
+        when(leaseRepository.tryAcquire(CategoryVideoCountReconciler.LEASE, Duration.ofMinutes(10))).thenReturn(true);
+        when(videoRepository.countByCategory()).thenReturn(Map.of("111", 10L, "222", 5L, "333", 1L));
+        when(categoryVideoCountRepository.findAll()).thenReturn(Map.of("111", 10L, "222", 4L, "444", 2L));
+
+        reconciler.reconcile();
+
+        verify(categoryVideoCountRepository).incrementAll(Map.of("222", 1L, "333", 1L, "444", -2L));
+        verify(changeCounterRepository).increment(CategoryVideoCountRepository.COLLECTION);
+    }
+
+    @Test
+    void reconcile_whenCountsMatch_shouldWriteNothing() {
+        when(leaseRepository.tryAcquire(CategoryVideoCountReconciler.LEASE, Duration.ofMinutes(10))).thenReturn(true);
+        when(videoRepository.countByCategory()).thenReturn(Map.of("111", 10L));
+        when(categoryVideoCountRepository.findAll()).thenReturn(Map.of("111", 10L));
+
+        reconciler.reconcile();
+
+        verify(categoryVideoCountRepository, never()).incrementAll(any());
+        verifyNoInteractions(changeCounterRepository);
+    }
+
+    @Test
+    void reconcile_whenAnotherInstanceHoldsTheLease_shouldNotAggregate() {
+        when(leaseRepository.tryAcquire(CategoryVideoCountReconciler.LEASE, Duration.ofMinutes(10))).thenReturn(false);
+
+        reconciler.reconcile();
+
+        verifyNoInteractions(videoRepository, categoryVideoCountRepository, changeCounterRepository);
+    }
+}
@@ -0,0 +1,122 @@
+package com.movieflix.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ChangeFeedSubscriberTest {
+
+    private static final int MAX_PENDING = 3;
+
+    private final ExecutorService sender = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void shutdown() {
+        sender.shutdownNow();
+    }
+
+    @Test
+    void offer_shouldSendTheEventsInOrderAndEndAfterThem() throws Exception {
+        RecordingEmitter emitter = new RecordingEmitter(new CountDownLatch(0));
+        ChangeFeedSubscriber subscriber = new ChangeFeedSubscriber(emitter, MAX_PENDING, sender);
+
+        subscriber.enqueue(event("ready"));
+        subscriber.flush();
+        assertTrue(subscriber.offer(event("1")));
+        assertTrue(subscriber.offer(event("2")));
+        subscriber.end(SseEmitter::complete);
+
+        assertTrue(emitter.completed.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of("ready", "1", "2"), emitter.sent);
+        assertFalse(subscriber.offer(event("3")));
+    }
+
+    @Test
+    void offer_whenTheSubscriberDoesNotRead_shouldDropItWithoutWaiting() throws Exception {
+        CountDownLatch reading = new CountDownLatch(1);
+        RecordingEmitter emitter = new RecordingEmitter(reading);
+        ChangeFeedSubscriber subscriber = new ChangeFeedSubscriber(emitter, MAX_PENDING, sender);
+
+        // the first one is taken by the sender, which then blocks
+        assertTrue(subscriber.offer(event("0")));
+        assertTrue(emitter.sending.await(5, TimeUnit.SECONDS));
+        for (int i = 1; i <= MAX_PENDING; i++) {
+            assertTrue(subscriber.offer(event(String.valueOf(i))));
+        }
+        assertFalse(subscriber.offer(event("overflow")));
+        assertFalse(subscriber.offer(event("after")));
+
+        reading.countDown();
+        assertTrue(emitter.completed.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of("0"), emitter.sent);
+    }
+
+    @Test
+    void close_shouldWaitForTheWriteInProgressAndStopTheSends() throws Exception {
+        CountDownLatch reading = new CountDownLatch(1);
+        RecordingEmitter emitter = new RecordingEmitter(reading);
+        ChangeFeedSubscriber subscriber = new ChangeFeedSubscriber(emitter, MAX_PENDING, sender);
+        assertTrue(subscriber.offer(event("0")));
+        assertTrue(emitter.sending.await(5, TimeUnit.SECONDS));
+
+        CompletableFuture<Void> closed = CompletableFuture.runAsync(subscriber::close, sender);
+
+        assertThrows(TimeoutException.class, () -> closed.get(100, TimeUnit.MILLISECONDS));
+        reading.countDown();
+        closed.get(5, TimeUnit.SECONDS);
+        assertFalse(subscriber.offer(event("1")));
+        assertEquals(List.of("0"), emitter.sent);
+    }
+
+    private static SseEmitter.SseEventBuilder event(String id) {
+        return SseEmitter.event().id(id).data(id);
+    }
+
+    private static class RecordingEmitter extends SseEmitter {
+
+        private final CountDownLatch reading;
+
+        private final CountDownLatch sending = new CountDownLatch(1);
+
+        private final CountDownLatch completed = new CountDownLatch(1);
+
+        private final List<String> sent = new CopyOnWriteArrayList<>();
+
+        RecordingEmitter(CountDownLatch reading) {
+            this.reading = reading;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            sending.countDown();
+            try {
+                reading.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException(e);
+            }
+            String lines = builder.build().iterator().next().getData().toString();
+            sent.add(lines.substring("id:".length(), lines.indexOf('\n')));
+        }
+
+        @Override
+        public synchronized void complete() {
+            completed.countDown();
+        }
+    }
+}
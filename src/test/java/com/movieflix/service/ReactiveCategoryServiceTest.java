@@ -0,0 +1,78 @@
+package com.movieflix.service;
+
+import com.movieflix.configuration.CacheConfiguration;
+import com.movieflix.domain.Category;
+import com.movieflix.domain.dto.CategoryRequestDTO;
+import com.movieflix.domain.dto.CategoryResponseDTO;
+import com.movieflix.exception.DataNotFoundException;
+import com.movieflix.mapper.CategoryMapperImpl;
+import com.movieflix.repository.ReactiveCategoryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveCategoryServiceTest {
+
+    private ReactiveCategoryService categoryService;
+
+    private CacheManager cacheManager;
+
+    @Mock
+    private ReactiveCategoryRepository categoryRepository;
+
+    @Mock
+    private VideoCategoryPropagator videoCategoryPropagator;
+
+    @BeforeEach
+    void init() {
+        this.cacheManager = new ConcurrentMapCacheManager(CacheConfiguration.CATEGORIES, CacheConfiguration.CATEGORY_LIST);
+        this.categoryService = new ReactiveCategoryService(categoryRepository, new CategoryMapperImpl(), videoCategoryPropagator, cacheManager);
+    }
+
+    @Test
+    void update_whenFound_shouldEvictCacheAndPropagate() {
+        Category category = Category.builder().id("123").title("Title").color("#FFF").build();
+        CategoryRequestDTO request = CategoryRequestDTO.builder().title("Title updated").color("#000").build();
+        CategoryResponseDTO expectedResponse = CategoryResponseDTO.builder().id("123").title("Title updated").color("#000").build();
+        cacheManager.getCache(CacheConfiguration.CATEGORIES).put("123", category);
+
+        when(categoryRepository.findById("123")).thenReturn(Mono.just(category));
+        when(categoryRepository.save(any())).thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+
+        StepVerifier.create(categoryService.update("123", request))
+                .expectNext(expectedResponse)
+                .verifyComplete();
+        assertNull(cacheManager.getCache(CacheConfiguration.CATEGORIES).get("123"));
+        verify(videoCategoryPropagator).propagate("123");
+    }
+
+    @Test
+    void delete_whenFound_shouldDeleteAndPropagate() {
+        when(categoryRepository.findById("123")).thenReturn(Mono.just(Category.builder().id("123").build()));
+        when(categoryRepository.deleteById("123")).thenReturn(Mono.empty());
+
+        StepVerifier.create(categoryService.delete("123")).verifyComplete();
+        verify(videoCategoryPropagator).propagate("123");
+    }
+
+    @Test
+    void delete_whenNotFound_shouldFail() {
+        when(categoryRepository.findById("123")).thenReturn(Mono.empty());
+
+        StepVerifier.create(categoryService.delete("123"))
+                .expectError(DataNotFoundException.class)
+                .verify();
+        verify(videoCategoryPropagator, never()).propagate(any());
+    }
+}
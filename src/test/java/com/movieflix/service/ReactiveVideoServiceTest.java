@@ -0,0 +1,199 @@
+package com.movieflix.service;
+
+import com.movieflix.domain.Category;
+import com.movieflix.domain.Video;
+import com.movieflix.domain.dto.CategoryResponseDTO;
+import com.movieflix.domain.dto.CursorPageDTO;
+import com.movieflix.domain.dto.VideoRequestDTO;
+import com.movieflix.domain.dto.VideoResponseDTO;
+import com.movieflix.exception.CategoryNotFoundException;
+import com.movieflix.exception.DataNotFoundException;
+import com.movieflix.exception.InvalidCursorException;
+import com.movieflix.mapper.CategoryMapperImpl;
+import com.movieflix.mapper.VideoMapperImpl;
+import com.movieflix.repository.ReactiveCategoryRepository;
+import com.movieflix.repository.ReactiveVideoRepository;
+import com.querydsl.core.types.Predicate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveVideoServiceTest {
+
+    private ReactiveVideoService videoService;
+
+    @Mock
+    private ReactiveVideoRepository videoRepository;
+
+    @Mock
+    private ReactiveCategoryRepository categoryRepository;
+
+    @BeforeEach
+    void init() {
+        this.videoService = new ReactiveVideoService(videoRepository, categoryRepository, new VideoMapperImpl(new CategoryMapperImpl()));
+        ReflectionTestUtils.setField(videoService, "defaultCategoryId", "111");
+        ReflectionTestUtils.setField(videoService, "maxPageSize", 100);
+    }
+
+    @Test
+    void findAll_whenCalled_shouldReturnRequestedPage() {
+        Predicate predicate = VideoPredicates.getPredicate("title");
+        when(videoRepository.findAll(predicate, Set.of("title"), PageRequest.of(1, 2))).thenReturn(Flux.just(Video.builder().id("3").title("Title 3").build()));
+        when(videoRepository.count(predicate)).thenReturn(Mono.just(3L));
+
+        StepVerifier.create(videoService.findAll("title", Set.of("title"), PageRequest.of(1, 2)))
+                .assertNext(page -> {
+                    assertEquals(List.of(VideoResponseDTO.builder().id("3").title("Title 3").build()), page.getContent());
+                    assertEquals(3L, page.getTotalElements());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void findAllByCursor_whenMoreResultsExist_shouldReturnNextCursor() {
+        List<Video> videos = List.of(
+                Video.builder().id("6101d932ec4bf031baadd4d1").build(),
+                Video.builder().id("6101d932ec4bf031baadd4d2").build());
+        when(videoRepository.findAllAfter(any(Predicate.class), isNull(), eq(2), eq(Set.of()))).thenReturn(Flux.fromIterable(videos));
+        when(videoRepository.findAllAfter(any(Predicate.class), eq("6101d932ec4bf031baadd4d1"), eq(2), eq(Set.of()))).thenReturn(Flux.just(videos.get(1)));
+
+        CursorPageDTO<VideoResponseDTO> response = videoService.findAll(null, Set.of(), "", 1).block();
+
+        assertEquals("6101d932ec4bf031baadd4d1", response.getContent().get(0).getId());
+        StepVerifier.create(videoService.findAll(null, Set.of(), response.getNextCursor(), 1))
+                .assertNext(next -> {
+                    assertEquals("6101d932ec4bf031baadd4d2", next.getContent().get(0).getId());
+                    assertNull(next.getNextCursor());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void findAllByCursor_whenCursorIsInvalid_shouldFail() {
+        StepVerifier.create(videoService.findAll(null, Set.of(), "not-a-cursor", 10))
+                .expectError(InvalidCursorException.class)
+                .verify();
+        verify(videoRepository, never()).findAllAfter(any(), any(), anyInt(), any());
+    }
+
+    @Test
+    void search_whenCalled_shouldReturnVideoPage() {
+        when(videoRepository.search("title", Set.of(), PageRequest.of(0, 10))).thenReturn(Flux.just(Video.builder().id("123").title("Title").build()));
+        when(videoRepository.countSearch("title")).thenReturn(Mono.just(1L));
+
+        StepVerifier.create(videoService.search("title", Set.of(), PageRequest.of(0, 10)))
+                .assertNext(page -> assertEquals(List.of(VideoResponseDTO.builder().id("123").title("Title").build()), page.getContent()))
+                .verifyComplete();
+    }
+
+    @Test
+    void findAllByCategory_whenCalled_shouldReturnProjectedPage() {
+        Set<String> fields = Set.of("title");
+        when(videoRepository.findByCategoryId("111", fields, PageRequest.of(1, 100)))
+                .thenReturn(Flux.just(Video.builder().id("123").title("Title").build()));
+        when(videoRepository.countByCategoryId("111")).thenReturn(Mono.just(101L));
+
+        StepVerifier.create(videoService.findAllByCategory("111", fields, PageRequest.of(1, 500)))
+                .assertNext(page -> {
+                    assertEquals(List.of(VideoResponseDTO.builder().id("123").title("Title").build()), page.getContent());
+                    assertEquals(100, page.getSize());
+                    assertEquals(101L, page.getTotalElements());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void create_whenCalledWithoutCategoryId_shouldReturnCreatedVideoWithDefaultCategory() {
+        Category category = Category.builder().id("111").build();
+        VideoRequestDTO request = VideoRequestDTO.builder().title("Title").description("Description").url("url").build();
+        VideoResponseDTO expectedResponse = VideoResponseDTO.builder()
+                .id("123")
+                .title("Title")
+                .description("Description")
+                .url("url")
+                .category(CategoryResponseDTO.builder().id("111").build())
+                .build();
+
+        when(categoryRepository.findById("111")).thenReturn(Mono.just(category));
+        when(videoRepository.save(any())).thenAnswer(invocation -> {
+            Video video = invocation.getArgument(0);
+            video.setId("123");
+            return Mono.just(video);
+        });
+
+        StepVerifier.create(videoService.create(request))
+                .expectNext(expectedResponse)
+                .verifyComplete();
+    }
+
+    @Test
+    void create_whenCalledWithInvalidCategoryId_shouldFail() {
+        VideoRequestDTO request = VideoRequestDTO.builder().title("Title").description("Description").url("url").categoryId("catId").build();
+
+        when(categoryRepository.findById("catId")).thenReturn(Mono.empty());
+
+        StepVerifier.create(videoService.create(request))
+                .expectError(CategoryNotFoundException.class)
+                .verify();
+        verify(videoRepository, never()).save(any());
+    }
+
+    @Test
+    void findById_whenNotFound_shouldFail() {
+        when(videoRepository.findById("123", Set.of())).thenReturn(Mono.empty());
+
+        StepVerifier.create(videoService.findById("123", Set.of()))
+                .expectError(DataNotFoundException.class)
+                .verify();
+    }
+
+    @Test
+    void update_whenFound_shouldReturnUpdatedVideo() {
+        Video video = Video.builder().id("123").title("Title").description("Description").url("url").build();
+        VideoRequestDTO request = VideoRequestDTO.builder().title("Title updated").description("Description updated").url("url updated").build();
+        VideoResponseDTO expectedResponse = VideoResponseDTO.builder()
+                .id("123")
+                .title("Title updated")
+                .description("Description updated")
+                .url("url updated")
+                .category(CategoryResponseDTO.builder().id("111").build())
+                .build();
+
+        when(videoRepository.findById("123")).thenReturn(Mono.just(video));
+        when(categoryRepository.findById("111")).thenReturn(Mono.just(Category.builder().id("111").build()));
+        when(videoRepository.save(any())).thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+
+        StepVerifier.create(videoService.update("123", request))
+                .expectNext(expectedResponse)
+                .verifyComplete();
+    }
+
+    @Test
+    void delete_whenNotFound_shouldFail() {
+        when(videoRepository.findById("123")).thenReturn(Mono.empty());
+
+        StepVerifier.create(videoService.delete("123"))
+                .expectError(DataNotFoundException.class)
+                .verify();
+        verify(videoRepository, never()).deleteById(any(String.class));
+    }
+}
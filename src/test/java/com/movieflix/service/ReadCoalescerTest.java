@@ -0,0 +1,150 @@
+package com.movieflix.service;
+
+import com.movieflix.exception.DataNotFoundException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReadCoalescerTest {
+
+    private static final int CALLERS = 8;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final ReadCoalescer readCoalescer = new ReadCoalescer(meterRegistry, Set.of(ReadCoalescer.VIDEO));
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void coalesce_whenCalledConcurrentlyForTheSameKey_shouldReadOnceAndShareTheResult() throws Exception {
+        AtomicInteger reads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        Object result = new Object();
+
+        List<Future<Object>> callers = callConcurrently(() -> {
+            reads.incrementAndGet();
+            await(release);
+            return result;
+        });
+        release.countDown();
+
+        for (Future<Object> caller : callers) {
+            assertSame(result, caller.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, reads.get());
+        assertEquals(1, count("leader"));
+        assertEquals(CALLERS - 1, count("follower"));
+    }
+
+    @Test
+    void coalesce_whenTheReadFails_shouldThrowTheSameExceptionToEveryCaller() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        DataNotFoundException notFound = new DataNotFoundException();
+
+        List<Future<Object>> callers = callConcurrently(() -> {
+            await(release);
+            throw notFound;
+        });
+        release.countDown();
+
+        for (Future<Object> caller : callers) {
+            ExecutionException e = assertThrows(ExecutionException.class, () -> caller.get(5, TimeUnit.SECONDS));
+            assertSame(notFound, e.getCause());
+        }
+    }
+
+    @Test
+    void coalesce_afterTheReadCompleted_shouldReadAgain() {
+        AtomicInteger reads = new AtomicInteger();
+
+        readCoalescer.coalesce(ReadCoalescer.VIDEO, "123", reads::incrementAndGet);
+        int second = readCoalescer.coalesce(ReadCoalescer.VIDEO, "123", reads::incrementAndGet);
+
+        assertEquals(2, second);
+        assertEquals(2, count("leader"));
+    }
+
+    @Test
+    void forget_whenAReadIsInFlight_shouldHaveLaterCallersReadAgain() throws Exception {
+        CountDownLatch leading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<Object> before = executor.submit(() -> readCoalescer.coalesce(ReadCoalescer.VIDEO, "123", () -> {
+            leading.countDown();
+            await(release);
+            return "before";
+        }));
+        assertTrue(leading.await(5, TimeUnit.SECONDS));
+
+        readCoalescer.forget(ReadCoalescer.VIDEO, "123"::equals);
+        Object after = readCoalescer.coalesce(ReadCoalescer.VIDEO, "123", () -> "after");
+        release.countDown();
+
+        assertEquals("after", after);
+        assertEquals("before", before.get(5, TimeUnit.SECONDS));
+        assertEquals(2, count("leader"));
+    }
+
+    @Test
+    void coalesce_whenOutOfScope_shouldReadWithoutCounting() {
+        int result = readCoalescer.coalesce(ReadCoalescer.CATEGORY, "123", () -> 1);
+
+        assertEquals(1, result);
+        assertTrue(meterRegistry.find(ReadCoalescer.METRIC).counters().isEmpty());
+    }
+
+    /**
+     * Starts every caller once the first one is inside the read, so the others find it in flight.
+     */
+    private List<Future<Object>> callConcurrently(Supplier<Object> read) throws InterruptedException {
+        CountDownLatch leading = new CountDownLatch(1);
+        List<Future<Object>> callers = new ArrayList<>();
+        callers.add(executor.submit(() -> readCoalescer.coalesce(ReadCoalescer.VIDEO, "123", () -> {
+            leading.countDown();
+            return read.get();
+        })));
+        assertTrue(leading.await(5, TimeUnit.SECONDS));
+        for (int i = 1; i < CALLERS; i++) {
+            callers.add(executor.submit(() -> readCoalescer.coalesce(ReadCoalescer.VIDEO, "123", read)));
+        }
+        // followers are counted before they wait, so the read is not released before all of them joined it
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (count("follower") < CALLERS - 1 && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+        return callers;
+    }
+
+    private double count(String role) {
+        return meterRegistry.counter(ReadCoalescer.METRIC, "name", ReadCoalescer.VIDEO, "role", role).count();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.movieflix.service;
+
+import com.movieflix.domain.Category;
+import com.movieflix.domain.Video;
+import com.movieflix.domain.dto.TrendingVideoDTO;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TrendingVideosTest {
+
+    private static final long BUCKET_MS = 1000;
+
+    private final TrendingVideos trendingVideos = new TrendingVideos(3, BUCKET_MS, 2);
+
+    @Test
+    void top_whenViewed_shouldRankByViews() {
+        trendingVideos.add(0, Map.of("1", 5L, "2", 7L, "3", 1L), List.of(video("1", "111"), video("2", "222"), video("3", "111")));
+
+        assertEquals(List.of("2", "1"), ids(trendingVideos.top(null, 10)));
+        assertEquals(List.of("1", "3"), ids(trendingVideos.top("111", 10)));
+        assertEquals(List.of("2"), ids(trendingVideos.top(null, 1)));
+        assertEquals(7L, trendingVideos.top(null, 1).get(0).getViews());
+    }
+
+    @Test
+    void add_whenTheVideoIsUnknown_shouldIgnoreItsViews() {
+        trendingVideos.add(0, Map.of("1", 5L, "2", 7L), List.of(video("1", "111")));
+
+        assertEquals(List.of("1"), ids(trendingVideos.top(null, 10)));
+    }
+
+    @Test
+    void add_whenViewedInSeveralBuckets_shouldSumThem() {
+        trendingVideos.add(0, Map.of("1", 5L, "2", 7L), List.of(video("1", "111"), video("2", "111")));
+        trendingVideos.add(BUCKET_MS, Map.of("1", 5L), List.of(video("1", "111")));
+
+        assertEquals(List.of("1", "2"), ids(trendingVideos.top(null, 10)));
+        assertEquals(10L, trendingVideos.top(null, 1).get(0).getViews());
+    }
+
+    @Test
+    void add_whenABucketExpires_shouldSubtractItsViews() {
+        trendingVideos.add(0, Map.of("1", 5L), List.of(video("1", "111")));
+        trendingVideos.add(BUCKET_MS, Map.of("2", 1L), List.of(video("2", "111")));
+
+        trendingVideos.add(3 * BUCKET_MS, Map.of(), List.of());
+
+        assertEquals(List.of("2"), ids(trendingVideos.top(null, 10)));
+        assertEquals(List.of("2"), ids(trendingVideos.top("111", 10)));
+    }
+
+    @Test
+    void add_whenIdleForLongerThanTheWindow_shouldExpireEveryView() {
+        trendingVideos.add(0, Map.of("1", 5L), List.of(video("1", "111")));
+
+        trendingVideos.add(100 * BUCKET_MS, Map.of(), List.of());
+
+        assertEquals(List.of(), trendingVideos.top(null, 10));
+    }
+
+    @Test
+    void remove_whenCalled_shouldDropTheVideo() {
+        trendingVideos.add(0, Map.of("1", 5L, "2", 7L), List.of(video("1", "111"), video("2", "111")));
+
+        trendingVideos.remove("2");
+
+        assertEquals(List.of("1"), ids(trendingVideos.top("111", 10)));
+    }
+
+    private static Video video(String id, String categoryId) {
+        return Video.builder().id(id).title("Title " + id).category(Category.builder().id(categoryId).build()).build();
+    }
+
+    private static List<String> ids(List<TrendingVideoDTO> videos) {
+        return videos.stream().map(TrendingVideoDTO::getId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,128 @@
+package com.movieflix.service;
+
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.ServerAddress;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import com.movieflix.domain.Category;
+import com.movieflix.domain.Video;
+import com.movieflix.domain.dto.VideoBatchResultDTO;
+import com.movieflix.domain.dto.VideoRequestDTO;
+import com.movieflix.mapper.CategoryMapperImpl;
+import com.movieflix.mapper.VideoMapperImpl;
+import com.movieflix.repository.CategoryRepository;
+import com.movieflix.repository.CategoryVideoCountRepository;
+import com.movieflix.repository.VideoRepository;
+import org.bson.BsonDocument;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.validation.Validation;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class VideoBatchServiceTest {
+
+    private VideoBatchService videoBatchService;
+
+    @Mock
+    private VideoRepository videoRepository;
+
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    @Mock
+    private CategoryVideoCountRepository categoryVideoCountRepository;
+
+    @BeforeEach
+    void init() {
+        this.videoBatchService = new VideoBatchService(videoRepository, categoryRepository,
+                new VideoMapperImpl(new CategoryMapperImpl()), Validation.buildDefaultValidatorFactory().getValidator(),
+                categoryVideoCountRepository);
+        ReflectionTestUtils.setField(videoBatchService, "defaultCategoryId", "111");
+        ReflectionTestUtils.setField(videoBatchService, "chunkSize", 2);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void create_whenCalled_shouldInsertValidVideosInChunksAndReportEachItem() {
+        Category category = Category.builder().id("111").build();
+        List<VideoRequestDTO> requests = Arrays.asList(
+                VideoRequestDTO.builder().title("Title 1").description("Description").url("url").build(),
+                VideoRequestDTO.builder().title("").description("Description").url("url").build(),
+                VideoRequestDTO.builder().title("Title 3").description("Description").url("url").categoryId("unknown").build());
+
+        when(categoryRepository.findAllById(any())).thenReturn(List.of(category));
+
+        List<VideoBatchResultDTO> response = videoBatchService.create(requests.iterator());
+
+        assertEquals(3, response.size());
+        assertEquals(VideoBatchResultDTO.Status.CREATED, response.get(0).getStatus());
+        assertEquals(VideoBatchResultDTO.Status.INVALID, response.get(1).getStatus());
+        assertEquals(Set.of("title"), response.get(1).getErrors().keySet());
+        assertEquals(VideoBatchResultDTO.Status.INVALID, response.get(2).getStatus());
+        assertEquals(Set.of("categoryId"), response.get(2).getErrors().keySet());
+        assertEquals(2, response.get(2).getIndex());
+
+        ArgumentCaptor<List<Video>> inserted = ArgumentCaptor.forClass(List.class);
+        verify(videoRepository, times(1)).bulkInsert(inserted.capture());
+        assertEquals(response.get(0).getId(), inserted.getValue().get(0).getId());
+        assertEquals(category, inserted.getValue().get(0).getCategory());
+        verify(categoryRepository, times(2)).findAllById(any());
+        verify(categoryVideoCountRepository).incrementAll(Map.of("111", 1L));
+    }
+
+    @Test
+    void create_whenBulkWritePartiallyFails_shouldReportFailedItems() {
+        Category category = Category.builder().id("111").build();
+        List<VideoRequestDTO> requests = List.of(
+                VideoRequestDTO.builder().title("Title 1").description("Description").url("url").build(),
+                VideoRequestDTO.builder().title("Title 2").description("Description").url("url").build());
+        BulkWriteError error = new BulkWriteError(11000, "duplicate key", new BsonDocument(), 1);
+
+        when(categoryRepository.findAllById(any())).thenReturn(List.of(category));
+        doThrow(new BulkOperationException("failed", new MongoBulkWriteException(BulkWriteResult.unacknowledged(),
+                List.of(error), null, new ServerAddress(), Set.of())))
+                .when(videoRepository).bulkInsert(any());
+
+        List<VideoBatchResultDTO> response = videoBatchService.create(requests.iterator());
+
+        assertEquals(VideoBatchResultDTO.Status.CREATED, response.get(0).getStatus());
+        assertEquals(VideoBatchResultDTO.Status.FAILED, response.get(1).getStatus());
+        verify(categoryVideoCountRepository).incrementAll(Map.of("111", 1L));
+    }
+
+    @Test
+    void createItems_whenAnItemIsUnreadable_shouldReportItInvalidAndCreateTheOthers() {
+        Category category = Category.builder().id("111").build();
+        List<VideoBatchService.Item> items = List.of(
+                VideoBatchService.Item.unreadable("Unexpected character"),
+                VideoBatchService.Item.of(VideoRequestDTO.builder().title("Title 2").description("Description").url("url").build()),
+                VideoBatchService.Item.of(VideoRequestDTO.builder().title("Title 3").description("Description").url("url").build()));
+
+        when(categoryRepository.findAllById(any())).thenReturn(List.of(category));
+
+        List<VideoBatchResultDTO> response = videoBatchService.createItems(items.iterator());
+
+        assertEquals(3, response.size());
+        assertEquals(VideoBatchResultDTO.Status.INVALID, response.get(0).getStatus());
+        assertEquals(Map.of("video", "Unexpected character"), response.get(0).getErrors());
+        assertEquals(VideoBatchResultDTO.Status.CREATED, response.get(1).getStatus());
+        assertEquals(VideoBatchResultDTO.Status.CREATED, response.get(2).getStatus());
+        assertEquals(2, response.get(2).getIndex());
+        verify(videoRepository, times(2)).bulkInsert(any());
+    }
+}
@@ -0,0 +1,105 @@
+package com.movieflix.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.movieflix.domain.dto.CategoryResponseDTO;
+import com.movieflix.domain.dto.VideoResponseDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class VideoBodyCacheTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final VideoBodyCache videoBodyCache = new VideoBodyCache(objectMapper, new SimpleMeterRegistry(), 1 << 20, 256, 60_000);
+
+    @Test
+    void put_whenCalled_shouldEncodeTheVideoAsJson() throws IOException {
+        VideoResponseDTO video = video("123", "111", "Title");
+
+        VideoBodyCache.Body body = videoBodyCache.put(2, video);
+
+        assertEquals(video, objectMapper.readValue(body.getJson(), VideoResponseDTO.class));
+        assertNull(body.getGzip());
+        assertSame(body, videoBodyCache.get("123"));
+    }
+
+    @Test
+    void put_whenANewerVersionIsCached_shouldKeepTheNewerOne() {
+        VideoBodyCache.Body newer = videoBodyCache.put(3, video("123", "111", "Newer"));
+
+        videoBodyCache.put(2, video("123", "111", "Older"));
+
+        assertSame(newer, videoBodyCache.get("123"));
+    }
+
+    @Test
+    void put_whenTheJsonIsLarge_shouldKeepAGzippedCopy() throws IOException {
+        VideoBodyCache.Body body = videoBodyCache.put(1, video("123", "111", "Title ".repeat(100)));
+
+        assertNotNull(body.getGzip());
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(body.getGzip()))) {
+            assertArrayEquals(body.getJson(), gzip.readAllBytes());
+        }
+    }
+
+    @Test
+    void invalidateCategory_whenCalled_shouldDropOnlyTheVideosOfTheCategory() {
+        videoBodyCache.put(1, video("123", "111", "Title"));
+        videoBodyCache.put(1, video("456", "222", "Title"));
+
+        videoBodyCache.invalidateCategory("111");
+
+        assertNull(videoBodyCache.get("123"));
+        assertNotNull(videoBodyCache.get("456"));
+    }
+
+    @Test
+    void invalidate_whenCalled_shouldDropTheVideo() {
+        videoBodyCache.put(1, video("123", "111", "Title"));
+
+        videoBodyCache.invalidate("123", 2);
+
+        assertNull(videoBodyCache.get("123"));
+    }
+
+    @Test
+    void put_whenReadBeforeTheLastWrite_shouldNotCacheIt() {
+        videoBodyCache.invalidate("123", 2);
+
+        videoBodyCache.put(1, video("123", "111", "Older"));
+        assertNull(videoBodyCache.get("123"));
+
+        VideoBodyCache.Body written = videoBodyCache.put(2, video("123", "111", "Written"));
+        assertSame(written, videoBodyCache.get("123"));
+    }
+
+    @Test
+    void get_whenTheBodyExpired_shouldMiss() throws InterruptedException {
+        VideoBodyCache expiring = new VideoBodyCache(objectMapper, new SimpleMeterRegistry(), 1 << 20, 256, 1);
+        expiring.put(1, video("123", "111", "Title"));
+
+        Thread.sleep(10);
+
+        assertNull(expiring.get("123"));
+    }
+
+    private static VideoResponseDTO video(String id, String categoryId, String title) {
+        return VideoResponseDTO.builder()
+                .id(id)
+                .title(title)
+                .description("Description")
+                .url("url")
+                .category(CategoryResponseDTO.builder().id(categoryId).title("Category").color("#FFF").build())
+                .build();
+    }
+}
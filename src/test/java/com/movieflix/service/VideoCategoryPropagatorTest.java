@@ -0,0 +1,64 @@
+package com.movieflix.service;
+
+import com.movieflix.domain.Category;
+import com.movieflix.repository.CategoryRepository;
+import com.movieflix.repository.VideoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class VideoCategoryPropagatorTest {
+
+    private VideoCategoryPropagator videoCategoryPropagator;
+
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    @Mock
+    private VideoRepository videoRepository;
+
+    @Mock
+    private VideoBodyCache videoBodyCache;
+
+    @BeforeEach
+    void init() {
+        this.videoCategoryPropagator = new VideoCategoryPropagator(categoryRepository, videoRepository, videoBodyCache);
+        ReflectionTestUtils.setField(videoCategoryPropagator, "batchSize", 2);
+    }
+
+    @Test
+    void propagate_whenCategoryExists_shouldUpdateSnapshotsUntilNoneAreStale() {
+        Category category = Category.builder().id("123").title("Title").color("#FFF").build();
+
+        when(categoryRepository.findById("123")).thenReturn(Optional.of(category));
+        when(videoRepository.updateCategorySnapshot(category, 2)).thenReturn(2L, 1L, 0L);
+
+        videoCategoryPropagator.propagate("123");
+
+        verify(videoRepository, times(3)).updateCategorySnapshot(category, 2);
+        verify(videoRepository, never()).removeCategorySnapshot(any(), anyInt());
+        verify(videoBodyCache).invalidateCategory("123");
+    }
+
+    @Test
+    void propagate_whenCategoryWasDeleted_shouldRemoveSnapshots() {
+        when(categoryRepository.findById("123")).thenReturn(Optional.empty());
+        when(videoRepository.removeCategorySnapshot("123", 2)).thenReturn(2L, 0L);
+
+        videoCategoryPropagator.propagate("123");
+
+        verify(videoRepository, times(2)).removeCategorySnapshot("123", 2);
+        verify(videoRepository, never()).updateCategorySnapshot(any(), anyInt());
+        verify(videoBodyCache).invalidateCategory("123");
+    }
+}
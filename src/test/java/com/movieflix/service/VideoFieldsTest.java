@@ -0,0 +1,28 @@
+package com.movieflix.service;
+
+import com.movieflix.exception.InvalidFieldsException;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class VideoFieldsTest {
+
+    @Test
+    void parse_whenBlank_shouldReturnEmptySet() {
+        assertEquals(Set.of(), VideoFields.parse(null));
+        assertEquals(Set.of(), VideoFields.parse(" "));
+    }
+
+    @Test
+    void parse_whenCalled_shouldReturnTrimmedFields() {
+        assertEquals(Set.of("id", "title", "url"), VideoFields.parse("id, title,,url"));
+    }
+
+    @Test
+    void parse_whenFieldIsUnknown_shouldThrowException() {
+        assertThrows(InvalidFieldsException.class, () -> VideoFields.parse("title,password"));
+    }
+}
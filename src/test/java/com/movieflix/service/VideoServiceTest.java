@@ -4,20 +4,27 @@ package com.movieflix.service;
 import com.movieflix.domain.Category;
 import com.movieflix.domain.Video;
 import com.movieflix.domain.dto.CategoryResponseDTO;
+import com.movieflix.domain.dto.CursorPageDTO;
+import com.movieflix.domain.dto.Versioned;
 import com.movieflix.domain.dto.VideoRequestDTO;
 import com.movieflix.domain.dto.VideoResponseDTO;
 import com.movieflix.exception.CategoryNotFoundException;
 import com.movieflix.exception.DataNotFoundException;
+import com.movieflix.exception.InvalidCursorException;
+import com.movieflix.exception.VersionConflictException;
+import com.movieflix.mapper.CategoryMapperImpl;
+import com.movieflix.mapper.VideoMapperImpl;
 import com.movieflix.repository.CategoryRepository;
+import com.movieflix.repository.CategoryVideoCountRepository;
+import com.movieflix.repository.ChangeCounterRepository;
 import com.movieflix.repository.VideoRepository;
 import com.querydsl.core.BooleanBuilder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.modelmapper.ModelMapper;
-import org.modelmapper.convention.MatchingStrategies;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -25,11 +32,24 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.test.util.ReflectionTestUtils;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -43,21 +63,35 @@ class VideoServiceTest {
     @Mock
     private CategoryRepository categoryRepository;
 
+    @Mock
+    private ChangeCounterRepository changeCounterRepository;
+
+    @Mock
+    private CategoryVideoCountRepository categoryVideoCountRepository;
+
+    @Mock
+    private VideoBodyCache videoBodyCache;
+
+    @Mock
+    private TrendingVideos trendingVideos;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     @BeforeEach
     void init() {
-        ModelMapper modelMapper = new ModelMapper();
-        modelMapper.getConfiguration().setMatchingStrategy(MatchingStrategies.STRICT);
-        this.videoService = new VideoService(videoRepository, categoryRepository, modelMapper);
+        this.videoService = new VideoService(videoRepository, categoryRepository, new VideoMapperImpl(new CategoryMapperImpl()), changeCounterRepository,
+                categoryVideoCountRepository, new ReadCoalescer(meterRegistry, Set.of(ReadCoalescer.VIDEO, ReadCoalescer.VIDEO_BODY)), videoBodyCache, trendingVideos);
         ReflectionTestUtils.setField(videoService, "defaultCategoryId", "111");
+        ReflectionTestUtils.setField(videoService, "maxPageSize", 100);
     }
 
     @Test
     void findAll_whenCalled_shouldReturnVideoList() {
         List<Video> videos = List.of(Video.builder().id("123").title("Title").description("Description").url("url").build());
         Page<VideoResponseDTO> expectedResponse = new PageImpl<>(List.of(VideoResponseDTO.builder().id("123").title("Title").description("Description").url("url").build()));
-        when(videoRepository.findAll(any(BooleanBuilder.class), any(Pageable.class))).thenReturn(new PageImpl<>(videos));
+        when(videoRepository.findAll(any(BooleanBuilder.class), eq(Set.of()), any(Pageable.class))).thenReturn(new PageImpl<>(videos));
 
-        Page<VideoResponseDTO> response = videoService.findAll("", PageRequest.of(0, 10));
+        Page<VideoResponseDTO> response = videoService.findAll("", Set.of(), PageRequest.of(0, 10));
 
         assertEquals(expectedResponse, response);
     }
@@ -66,9 +100,70 @@ class VideoServiceTest {
     void findAll_whenCalledWithTitleParam_shouldReturnVideoList() {
         List<Video> videos = List.of(Video.builder().id("123").title("Title").description("Description").url("url").build());
         Page<VideoResponseDTO> expectedResponse = new PageImpl<>(List.of(VideoResponseDTO.builder().id("123").title("Title").description("Description").url("url").build()));
-        when(videoRepository.findAll(any(BooleanBuilder.class), any(Pageable.class))).thenReturn(new PageImpl<>(videos));
+        when(videoRepository.findAll(any(BooleanBuilder.class), eq(Set.of()), any(Pageable.class))).thenReturn(new PageImpl<>(videos));
+
+        Page<VideoResponseDTO> response = videoService.findAll("title", Set.of(), PageRequest.of(0, 10));
+
+        assertEquals(expectedResponse, response);
+    }
+
+    @Test
+    void findAllByCursor_whenMoreResultsExist_shouldReturnNextCursor() {
+        List<Video> videos = List.of(
+                Video.builder().id("6101d932ec4bf031baadd4d1").title("Title 1").build(),
+                Video.builder().id("6101d932ec4bf031baadd4d2").title("Title 2").build(),
+                Video.builder().id("6101d932ec4bf031baadd4d3").title("Title 3").build());
+        when(videoRepository.findAllAfter(any(BooleanBuilder.class), eq(null), eq(3), eq(Set.of()))).thenReturn(videos);
+
+        CursorPageDTO<VideoResponseDTO> response = videoService.findAll("title", Set.of(), "", 2);
+
+        assertEquals(2, response.getSize());
+        assertEquals("6101d932ec4bf031baadd4d2", response.getContent().get(1).getId());
+
+        when(videoRepository.findAllAfter(any(BooleanBuilder.class), eq("6101d932ec4bf031baadd4d2"), eq(3), eq(Set.of()))).thenReturn(videos.subList(2, 3));
+
+        CursorPageDTO<VideoResponseDTO> nextResponse = videoService.findAll("title", Set.of(), response.getNextCursor(), 2);
+
+        assertEquals(1, nextResponse.getSize());
+        assertNull(nextResponse.getNextCursor());
+    }
+
+    @Test
+    void findAllByCursor_whenSizeIsTooLarge_shouldCapIt() {
+        when(videoRepository.findAllAfter(any(BooleanBuilder.class), eq(null), eq(101), eq(Set.of()))).thenReturn(List.of());
+
+        videoService.findAll(null, Set.of(), "", Integer.MAX_VALUE);
+
+        verify(videoRepository).findAllAfter(any(BooleanBuilder.class), eq(null), eq(101), eq(Set.of()));
+    }
+
+    @Test
+    void findAllByCursor_whenCursorIsInvalid_shouldThrowException() {
+        assertThrows(InvalidCursorException.class, () -> videoService.findAll(null, Set.of(), "not-a-cursor", 10));
+        verify(videoRepository, never()).findAllAfter(any(), any(), anyInt(), any());
+    }
+
+    @Test
+    void export_whenCalled_shouldStreamMappedVideos() {
+        Stream<Video> videos = Stream.of(Video.builder().id("123").title("Title").description("Description").url("url").build());
+        List<VideoResponseDTO> expectedResponse = List.of(VideoResponseDTO.builder().id("123").title("Title").description("Description").url("url").build());
+        when(videoRepository.stream(any(BooleanBuilder.class))).thenReturn(videos);
+
+        List<VideoResponseDTO> response;
+        try (Stream<VideoResponseDTO> exported = videoService.export("title", "111")) {
+            response = exported.collect(Collectors.toList());
+        }
+
+        assertEquals(expectedResponse, response);
+    }
+
+    @Test
+    void search_whenCalled_shouldReturnVideoPage() {
+        List<Video> videos = List.of(Video.builder().id("123").title("Title").description("Description").url("url").build());
+        Page<VideoResponseDTO> expectedResponse = new PageImpl<>(List.of(VideoResponseDTO.builder().id("123").title("Title").description("Description").url("url").build()));
+        when(videoRepository.search("title", Set.of(), PageRequest.of(0, 10))).thenReturn(new PageImpl<>(videos));
 
-        Page<VideoResponseDTO> response = videoService.findAll("title", PageRequest.of(0, 10));
+        Page<VideoResponseDTO> response = videoService.search("title", Set.of(), PageRequest.of(0, 10));
 
         assertEquals(expectedResponse, response);
     }
@@ -92,6 +187,7 @@ class VideoServiceTest {
         VideoResponseDTO response = videoService.create(request);
 
         assertEquals(expectedResponse, response);
+        verify(categoryVideoCountRepository).increment("catId", 1);
     }
 
     @Test
@@ -127,24 +223,154 @@ class VideoServiceTest {
 
     @Test
     void findById_whenFound_shouldReturnVideo() {
-        Video video = Video.builder().id("123").title("Title").description("Description").url("url").build();
+        Video video = Video.builder().id("123").title("Title").description("Description").url("url").version(3L).build();
         String id = "123";
         VideoResponseDTO expectedResponse =VideoResponseDTO.builder().id("123").title("Title").description("Description").url("url").build();
 
-        when(videoRepository.findById(id)).thenReturn(Optional.of(video));
+        when(videoRepository.findById(id, Set.of())).thenReturn(Optional.of(video));
 
-        VideoResponseDTO response = videoService.findById(id);
+        Versioned<VideoResponseDTO> response = videoService.findById(id, Set.of());
 
-        assertEquals(expectedResponse, response);
+        assertEquals(expectedResponse, response.getBody());
+        assertEquals(3, response.getVersion());
+    }
+
+    @Test
+    void findById_whenFieldsAreRequested_shouldReadOnlyThoseFieldsAndTheVersion() {
+        when(videoRepository.findById("123", Set.of("title", "version")))
+                .thenReturn(Optional.of(Video.builder().id("123").title("Title").version(2L).build()));
+
+        Versioned<VideoResponseDTO> response = videoService.findById("123", Set.of("title"));
+
+        assertEquals(VideoResponseDTO.builder().id("123").title("Title").build(), response.getBody());
+        assertEquals(2, response.getVersion());
+        verifyNoInteractions(categoryRepository);
+    }
+
+    @Test
+    void findById_whenCalledConcurrently_shouldReadTheVideoOnce() throws Exception {
+        CountDownLatch readStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(videoRepository.findById("123", Set.of())).thenAnswer(invocation -> {
+            readStarted.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return Optional.of(Video.builder().id("123").title("Title").version(2L).build());
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Future<Versioned<VideoResponseDTO>> leader = executor.submit(() -> videoService.findById("123", Set.of()));
+            readStarted.await(5, TimeUnit.SECONDS);
+            List<Future<Versioned<VideoResponseDTO>>> followers = List.of(
+                    executor.submit(() -> videoService.findById("123", Set.of())),
+                    executor.submit(() -> videoService.findById("123", Set.of())),
+                    executor.submit(() -> videoService.findById("123", Set.of())));
+            awaitFollowers(ReadCoalescer.VIDEO, 3);
+            release.countDown();
+
+            assertEquals(2, leader.get(5, TimeUnit.SECONDS).getVersion());
+            for (Future<Versioned<VideoResponseDTO>> follower : followers) {
+                assertEquals(2, follower.get(5, TimeUnit.SECONDS).getVersion());
+            }
+            verify(videoRepository, times(1)).findById("123", Set.of());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void findById_whenTheVideoIsWrittenDuringARead_shouldNotShareThatReadAfterwards() throws Exception {
+        CountDownLatch olderReadStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(videoRepository.findById("123", Set.of()))
+                .thenAnswer(invocation -> {
+                    olderReadStarted.countDown();
+                    release.await(5, TimeUnit.SECONDS);
+                    return Optional.of(Video.builder().id("123").title("Before").version(1L).build());
+                })
+                .thenReturn(Optional.of(Video.builder().id("123").title("After").version(2L).build()));
+        when(videoRepository.deleteById("123", null)).thenReturn(Optional.of(Video.builder().id("123").build()));
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Versioned<VideoResponseDTO>> older = executor.submit(() -> videoService.findById("123", Set.of()));
+            olderReadStarted.await(5, TimeUnit.SECONDS);
+            videoService.delete("123", null);
+
+            Versioned<VideoResponseDTO> newer = videoService.findById("123", Set.of());
+            release.countDown();
+
+            assertEquals("After", newer.getBody().getTitle());
+            assertEquals(1, older.get(5, TimeUnit.SECONDS).getVersion());
+        } finally {
+            executor.shutdownNow();
+        }
     }
 
     @Test
     void findById_whenNotFound_shouldThrowException() {
         String id = "123";
 
-        when(videoRepository.findById(id)).thenReturn(Optional.empty());
+        when(videoRepository.findById(id, Set.of())).thenReturn(Optional.empty());
+
+        assertThrows(DataNotFoundException.class, () -> videoService.findById(id, Set.of()));
+    }
+
+    @Test
+    void findBodyById_whenCached_shouldNotReadTheVideo() {
+        VideoBodyCache.Body body = new VideoBodyCache.Body(2, null, new byte[0], null);
+        when(videoBodyCache.get("123")).thenReturn(body);
+
+        assertEquals(body, videoService.findBodyById("123"));
+        verifyNoInteractions(videoRepository);
+    }
+
+    @Test
+    void findBodyById_whenNotCached_shouldEncodeTheVideoAtItsStoredVersion() {
+        Video video = Video.builder().id("123").title("Title").version(3L).build();
+        VideoBodyCache.Body body = new VideoBodyCache.Body(3, null, new byte[0], null);
+        when(videoRepository.findById("123")).thenReturn(Optional.of(video));
+        when(videoBodyCache.put(3, VideoResponseDTO.builder().id("123").title("Title").build())).thenReturn(body);
+
+        assertEquals(body, videoService.findBodyById("123"));
+    }
 
-        assertThrows(DataNotFoundException.class, () -> videoService.findById(id));
+    @Test
+    void findBodyById_whenMissedConcurrently_shouldReadTheVideoOnce() throws Exception {
+        CountDownLatch readStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        VideoBodyCache.Body body = new VideoBodyCache.Body(2, null, new byte[0], null);
+        when(videoRepository.findById("123")).thenAnswer(invocation -> {
+            readStarted.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return Optional.of(Video.builder().id("123").title("Title").version(2L).build());
+        });
+        when(videoBodyCache.put(eq(2L), any())).thenReturn(body);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Future<VideoBodyCache.Body> leader = executor.submit(() -> videoService.findBodyById("123"));
+            readStarted.await(5, TimeUnit.SECONDS);
+            List<Future<VideoBodyCache.Body>> followers = List.of(
+                    executor.submit(() -> videoService.findBodyById("123")),
+                    executor.submit(() -> videoService.findBodyById("123")),
+                    executor.submit(() -> videoService.findBodyById("123")));
+            awaitFollowers(ReadCoalescer.VIDEO_BODY, 3);
+            release.countDown();
+
+            assertEquals(body, leader.get(5, TimeUnit.SECONDS));
+            for (Future<VideoBodyCache.Body> follower : followers) {
+                assertEquals(body, follower.get(5, TimeUnit.SECONDS));
+            }
+            verify(videoRepository, times(1)).findById("123");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void awaitFollowers(String name, int followers) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.counter(ReadCoalescer.METRIC, "name", name, "role", "follower").count() < followers
+                && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
     }
 
     @Test
@@ -159,55 +385,135 @@ class VideoServiceTest {
                 .category(CategoryResponseDTO.builder().id("111").build())
                 .build();
 
-        when(videoRepository.findById("123")).thenReturn(Optional.of(video));
-        when(videoRepository.save(any())).thenReturn(video);
+        when(videoRepository.update(any(), isNull())).thenReturn(Optional.of(video));
         when(categoryRepository.findById(any())).thenReturn(Optional.of(Category.builder().id("111").build()));
 
-        VideoResponseDTO response = videoService.update("123", request);
+        VideoResponseDTO response = videoService.update("123", request, null);
 
         assertEquals(expectedResponse, response);
+        verify(videoRepository, never()).findById(any());
+        verifyNoInteractions(categoryVideoCountRepository);
+        verify(videoBodyCache).invalidate("123", 1);
+    }
+
+    @Test
+    void update_whenCategoryChanged_shouldMoveTheVideoBetweenCounts() {
+        Video previous = Video.builder().id("123").category(Category.builder().id("111").build()).build();
+        VideoRequestDTO request = VideoRequestDTO.builder().title("Title").description("Description").url("url").categoryId("222").build();
+
+        when(videoRepository.update(any(), isNull())).thenReturn(Optional.of(previous));
+        when(categoryRepository.findById("222")).thenReturn(Optional.of(Category.builder().id("222").build()));
+
+        videoService.update("123", request, null);
+
+        verify(categoryVideoCountRepository).incrementAll(Map.of("111", -1L, "222", 1L));
+    }
+
+    @Test
+    void update_whenVideoHadNoCategory_shouldOnlyCountTheNewOne() {
+        Video previous = Video.builder().id("123").build();
+        VideoRequestDTO request = VideoRequestDTO.builder().title("Title").description("Description").url("url").categoryId("222").build();
+
+        when(videoRepository.update(any(), isNull())).thenReturn(Optional.of(previous));
+        when(categoryRepository.findById("222")).thenReturn(Optional.of(Category.builder().id("222").build()));
+
+        videoService.update("123", request, null);
+
+        verify(categoryVideoCountRepository).incrementAll(Map.of("222", 1L));
+    }
+
+    @Test
+    void update_whenVersionChanged_shouldThrowConflict() {
+        VideoRequestDTO request = VideoRequestDTO.builder().title("Title updated").description("Description updated").url("url updated").build();
+
+        when(categoryRepository.findById(any())).thenReturn(Optional.of(Category.builder().id("111").build()));
+        when(videoRepository.update(any(), eq(3L))).thenReturn(Optional.empty());
+        when(videoRepository.existsById("123")).thenReturn(true);
+
+        assertThrows(VersionConflictException.class, () -> videoService.update("123", request, 3L));
     }
 
     @Test
     void update_whenNotFound_shouldThrowException() {
         VideoRequestDTO request = VideoRequestDTO.builder().title("Title updated").description("Description updated").url("url updated").build();
 
-        when(videoRepository.findById("123")).thenReturn(Optional.empty());
+        when(categoryRepository.findById(any())).thenReturn(Optional.of(Category.builder().id("111").build()));
+        when(videoRepository.update(any(), isNull())).thenReturn(Optional.empty());
 
-        assertThrows(DataNotFoundException.class, () -> videoService.update("123", request));
-        verify(videoRepository, never()).save(any());
+        assertThrows(DataNotFoundException.class, () -> videoService.update("123", request, null));
+        verify(videoRepository, never()).existsById(any());
     }
 
     @Test
     void delete_whenFound_shouldDeleteTheVideo() {
-        Video video = Video.builder().id("123").title("Title").description("Description").url("url").build();
         String id = "123";
 
-        when(videoRepository.findById(id)).thenReturn(Optional.of(video));
+        when(videoRepository.deleteById(id, null)).thenReturn(Optional.of(Video.builder().id(id).category(Category.builder().id("111").build()).build()));
 
-        videoService.delete(id);
+        videoService.delete(id, null);
 
-        verify(videoRepository).deleteById(id);
+        verify(videoRepository, never()).findById(any());
+        verify(categoryVideoCountRepository).increment("111", -1);
+        verify(videoBodyCache).invalidate(id, Long.MAX_VALUE);
+        verify(trendingVideos).remove(id);
     }
 
     @Test
     void delete_whenNotFound_shouldThrowException() {
         String id = "123";
 
-        when(videoRepository.findById(id)).thenReturn(Optional.empty());
+        when(videoRepository.deleteById(id, null)).thenReturn(Optional.empty());
 
-        assertThrows(DataNotFoundException.class, () -> videoService.delete(id));
-        verify(videoRepository, never()).deleteById(any());
+        assertThrows(DataNotFoundException.class, () -> videoService.delete(id, null));
+        verifyNoInteractions(categoryVideoCountRepository);
+        verifyNoInteractions(videoBodyCache);
     }
 
     @Test
-    void findAllByCategory_whenCalled_shouldReturnVideoList() {
-        List<Video> videos = List.of(Video.builder().id("123").title("Title").description("Description").url("url").build());
-        List<VideoResponseDTO> expectedResponse = List.of(VideoResponseDTO.builder().id("123").title("Title").description("Description").url("url").build());
-        when(videoRepository.findByCategoryId("111")).thenReturn(videos);
+    void getCollectionVersion_whenCalled_shouldReturnVideosCounter() {
+        when(changeCounterRepository.get(Video.COLLECTION)).thenReturn(9L);
+
+        assertEquals(9L, videoService.getCollectionVersion());
+    }
+
+    @Test
+    void findAllByCategory_whenCalled_shouldReturnProjectedPage() {
+        Set<String> fields = Set.of("title");
+        List<Video> videos = List.of(Video.builder().id("123").title("Title").build());
+        Page<VideoResponseDTO> expectedResponse = new PageImpl<>(List.of(VideoResponseDTO.builder().id("123").title("Title").build()));
+        when(videoRepository.findByCategoryId("111", fields, PageRequest.of(0, 10))).thenReturn(new PageImpl<>(videos));
 
-        List<VideoResponseDTO> response = videoService.findAllByCategory("111");
+        Page<VideoResponseDTO> response = videoService.findAllByCategory("111", fields, PageRequest.of(0, 10));
 
         assertEquals(expectedResponse, response);
     }
+
+    @Test
+    void findAllByCategory_whenPageIsTooLarge_shouldCapPageSize() {
+        when(videoRepository.findByCategoryId(eq("111"), eq(Set.of()), any(Pageable.class))).thenReturn(Page.empty());
+
+        videoService.findAllByCategory("111", Set.of(), PageRequest.of(2, 100_000));
+
+        verify(videoRepository).findByCategoryId("111", Set.of(), PageRequest.of(2, 100));
+    }
+
+    @Test
+    void findAllByCategoryWithCursor_whenMoreResultsExist_shouldReturnNextCursor() {
+        List<Video> videos = List.of(
+                Video.builder().id("6101d932ec4bf031baadd4d1").build(),
+                Video.builder().id("6101d932ec4bf031baadd4d2").build());
+        when(videoRepository.findByCategoryIdAfter("111", null, 2, Set.of("id"))).thenReturn(videos);
+
+        CursorPageDTO<VideoResponseDTO> response = videoService.findAllByCategory("111", Set.of("id"), null, 1);
+
+        assertEquals(1, response.getSize());
+        assertEquals("6101d932ec4bf031baadd4d1", response.getContent().get(0).getId());
+
+        when(videoRepository.findByCategoryIdAfter("111", "6101d932ec4bf031baadd4d1", 2, Set.of("id"))).thenReturn(videos.subList(1, 2));
+
+        CursorPageDTO<VideoResponseDTO> nextResponse = videoService.findAllByCategory("111", Set.of("id"), response.getNextCursor(), 1);
+
+        assertEquals("6101d932ec4bf031baadd4d2", nextResponse.getContent().get(0).getId());
+        assertNull(nextResponse.getNextCursor());
+    }
 }
@@ -0,0 +1,159 @@
+package com.movieflix.service;
+
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.ServerAddress;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import com.movieflix.domain.Video;
+import com.movieflix.exception.DataNotFoundException;
+import com.movieflix.repository.VideoRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.BsonDocument;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.mongodb.BulkOperationException;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class VideoViewServiceTest {
+
+    private static final String FIRST = "6101d932ec4bf031baadd4d1";
+
+    private static final String SECOND = "6101d932ec4bf031baadd4d2";
+
+    private VideoViewService videoViewService;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @Mock
+    private VideoRepository videoRepository;
+
+    @Mock
+    private TrendingVideos trendingVideos;
+
+    @BeforeEach
+    void init() {
+        meterRegistry = new SimpleMeterRegistry();
+        videoViewService = new VideoViewService(videoRepository, trendingVideos, meterRegistry, 2);
+    }
+
+    @Test
+    void flush_whenViewed_shouldIncrementEachVideoOnce() {
+        List<Video> viewed = List.of(Video.builder().id(FIRST).build(), Video.builder().id(SECOND).build());
+        when(videoRepository.findAllById(any(), any())).thenReturn(viewed);
+
+        videoViewService.record(FIRST);
+        videoViewService.record(FIRST);
+        videoViewService.record(SECOND);
+        videoViewService.flush();
+
+        verify(videoRepository).incrementViews(Map.of(FIRST, 2L, SECOND, 1L));
+        verify(trendingVideos).add(anyLong(), eq(Map.of(FIRST, 2L, SECOND, 1L)), eq(viewed));
+        assertEquals(3, meterRegistry.counter(VideoViewService.METRIC, "result", "flushed").count());
+    }
+
+    @Test
+    void flush_whenTheVideoIsUnknown_shouldDropItsViews() {
+        when(videoRepository.findAllById(any(), any())).thenReturn(List.of(Video.builder().id(FIRST).build()));
+
+        videoViewService.record(FIRST);
+        videoViewService.record(SECOND);
+        videoViewService.flush();
+
+        verify(videoRepository).incrementViews(Map.of(FIRST, 1L));
+        assertEquals(1, meterRegistry.counter(VideoViewService.METRIC, "result", "dropped").count());
+    }
+
+    @Test
+    void flush_whenNothingWasViewed_shouldNotWrite() {
+        videoViewService.flush();
+
+        verifyNoInteractions(videoRepository);
+        verify(trendingVideos).add(anyLong(), eq(Map.of()), eq(List.of()));
+    }
+
+    @Test
+    void flush_whenFlushedTwice_shouldOnlyWriteNewViews() {
+        when(videoRepository.findAllById(any(), any())).thenReturn(List.of(Video.builder().id(FIRST).build()));
+
+        videoViewService.record(FIRST);
+        videoViewService.flush();
+        videoViewService.flush();
+
+        verify(videoRepository, times(1)).incrementViews(anyMap());
+    }
+
+    @Test
+    void flush_whenTheWriteFails_shouldRetryTheViewsWithTheNextFlush() {
+        when(videoRepository.findAllById(any(), any())).thenReturn(List.of(Video.builder().id(FIRST).build()));
+        doThrow(new DataAccessResourceFailureException("down")).doNothing().when(videoRepository).incrementViews(anyMap());
+
+        videoViewService.record(FIRST);
+        assertThrows(DataAccessResourceFailureException.class, () -> videoViewService.flush());
+        videoViewService.record(FIRST);
+        videoViewService.flush();
+
+        verify(videoRepository).incrementViews(Map.of(FIRST, 2L));
+    }
+
+    @Test
+    void flush_whenSomeUpdatesFail_shouldRetryOnlyThoseViews() {
+        when(videoRepository.findAllById(any(), any()))
+                .thenReturn(List.of(Video.builder().id(FIRST).build(), Video.builder().id(SECOND).build()))
+                .thenReturn(List.of(Video.builder().id(SECOND).build()));
+        BulkWriteError error = new BulkWriteError(1, "failed", new BsonDocument(), 1);
+        MongoBulkWriteException failure = new MongoBulkWriteException(BulkWriteResult.unacknowledged(), List.of(error), null, new ServerAddress(), Set.of());
+        doThrow(new BulkOperationException("failed", failure)).doNothing().when(videoRepository).incrementViews(anyMap());
+
+        videoViewService.record(FIRST);
+        videoViewService.record(SECOND);
+        videoViewService.flush();
+        videoViewService.flush();
+
+        verify(videoRepository).incrementViews(Map.of(SECOND, 1L));
+        verify(trendingVideos).add(anyLong(), eq(Map.of(FIRST, 1L)), any());
+    }
+
+    @Test
+    void record_whenTooManyVideosArePending_shouldRejectViewsOfOtherVideosUntilSomeAreIdle() {
+        String third = "6101d932ec4bf031baadd4d3";
+        when(videoRepository.findAllById(any(), any())).thenAnswer(invocation -> invocation.<Collection<String>>getArgument(0).stream()
+                .map(id -> Video.builder().id(id).build())
+                .collect(Collectors.toList()));
+
+        videoViewService.record(FIRST);
+        videoViewService.record(SECOND);
+        videoViewService.record(third);
+        videoViewService.record(FIRST);
+        videoViewService.flush();
+        videoViewService.flush();
+        videoViewService.record(third);
+        videoViewService.flush();
+
+        verify(videoRepository).incrementViews(Map.of(FIRST, 2L, SECOND, 1L));
+        verify(videoRepository).incrementViews(Map.of(third, 1L));
+        assertEquals(1, meterRegistry.counter(VideoViewService.METRIC, "result", "rejected").count());
+    }
+
+    @Test
+    void record_whenTheIdIsNotAnObjectId_shouldThrowException() {
+        assertThrows(DataNotFoundException.class, () -> videoViewService.record("123"));
+    }
+}